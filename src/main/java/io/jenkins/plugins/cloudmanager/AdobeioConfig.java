@@ -1,6 +1,7 @@
 package io.jenkins.plugins.cloudmanager;
 
 import hudson.util.Secret;
+import io.jenkins.plugins.cloudmanager.client.JsonEngine;
 
 public interface AdobeioConfig {
 
@@ -15,4 +16,8 @@ public interface AdobeioConfig {
   Secret getPrivateKey();
 
   String getAccessToken() throws AdobeIOException ;
+
+  default JsonEngine getJsonEngine() {
+    return JsonEngine.GSON;
+  }
 }
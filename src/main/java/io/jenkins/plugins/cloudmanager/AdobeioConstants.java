@@ -32,6 +32,7 @@ public final class AdobeioConstants {
   public static final String CONTENT_TYPE = "content-type";
 
   public static final String JSON_ACCESS_TOKEN = "access_token";
+  public static final String JSON_EXPIRES_IN = "expires_in";
   public static final String JK_PKEY = "PKey";
   public static final String JK_SUBSCRIBER = "subscriber";
 
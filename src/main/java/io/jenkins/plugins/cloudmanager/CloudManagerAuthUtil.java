@@ -9,11 +9,13 @@ import static io.jenkins.plugins.cloudmanager.AdobeioConstants.CONTENT_TYPE_URL_
 import static io.jenkins.plugins.cloudmanager.AdobeioConstants.IMS_ENDPOINT;
 import static io.jenkins.plugins.cloudmanager.AdobeioConstants.IMS_JWT_EXCHANGE_ENDPOINT;
 import static io.jenkins.plugins.cloudmanager.AdobeioConstants.JSON_ACCESS_TOKEN;
+import static io.jenkins.plugins.cloudmanager.AdobeioConstants.JSON_EXPIRES_IN;
 import static io.jenkins.plugins.cloudmanager.AdobeioConstants.JWT_TOKEN;
 import static io.jenkins.plugins.cloudmanager.AdobeioConstants.NO_CACHE;
 import static io.jsonwebtoken.SignatureAlgorithm.RS256;
 
 import hudson.util.Secret;
+import io.jenkins.plugins.cloudmanager.cache.SharedCache;
 import io.jsonwebtoken.Jwts;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
@@ -24,6 +26,7 @@ import java.util.Base64;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import kong.unirest.HttpResponse;
 import kong.unirest.JsonNode;
 import kong.unirest.Unirest;
@@ -37,6 +40,10 @@ public class CloudManagerAuthUtil {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CloudManagerAuthUtil.class);
   private static final Base64.Decoder DECODER = Base64.getMimeDecoder();
+  // stop using a token a bit before IMS expires it
+  private static final long EXPIRY_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  // used when IMS does not say when the token expires
+  private static final long DEFAULT_EXPIRES_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
 
   /**
    * Get access token
@@ -44,7 +51,18 @@ public class CloudManagerAuthUtil {
    * @return
    */
   public static String getAccessToken(AdobeioConfig config) throws AdobeIOException{
+    return getExpiringAccessToken(config).getValue();
+  }
+
+  /**
+   * Get access token along with the time it should no longer be used.
+   *
+   * @return
+   */
+  public static SharedCache.Value getExpiringAccessToken(AdobeioConfig config)
+      throws AdobeIOException {
     String token = null;
+    long expiresIn = DEFAULT_EXPIRES_IN_MILLIS;
     HttpResponse<JsonNode> response =
         Unirest.post(IMS_JWT_EXCHANGE_ENDPOINT)
             .header(CACHE_CONTRL, NO_CACHE)
@@ -60,6 +78,8 @@ public class CloudManagerAuthUtil {
       JSONObject responseObject = response.getBody().getObject();
       if (responseObject.has(JSON_ACCESS_TOKEN)) {
         token = responseObject.getString(JSON_ACCESS_TOKEN);
+        // IMS sends expires_in in milliseconds
+        expiresIn = responseObject.optLong(JSON_EXPIRES_IN, DEFAULT_EXPIRES_IN_MILLIS);
       } else {
         throw new AdobeIOException("JWT Exchange response does not contain an access token.");
       }
@@ -70,7 +90,8 @@ public class CloudManagerAuthUtil {
           + "[" + response.getStatus() + "] "
           + response.getBody());
     }
-    return token;
+    return new SharedCache.Value(
+        token, System.currentTimeMillis() + Math.max(0, expiresIn - EXPIRY_MARGIN_MILLIS));
   }
 
   public static String safeGetPlainText(Secret secret) {
@@ -5,24 +5,43 @@ import hudson.ExtensionList;
 import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.AbstractProject;
+import hudson.model.Item;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Builder;
+import hudson.util.ComboBoxModel;
+import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import io.jenkins.plugins.cloudmanager.cache.SharedCache;
+import io.jenkins.plugins.cloudmanager.client.BranchIndex;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor.Lane;
 import io.jenkins.plugins.cloudmanager.client.PipelineExecutionService;
 import io.jenkins.plugins.cloudmanager.client.PipelinesService;
 import io.jenkins.plugins.cloudmanager.client.ProgramsService;
+import io.jenkins.plugins.cloudmanager.client.RepositoriesService;
+import io.swagger.client.model.Pipeline;
+import io.swagger.client.model.PipelineExecution;
 import io.swagger.client.model.PipelineList;
+import io.swagger.client.model.PipelinePhase;
 import io.swagger.client.model.ProgramList;
+import io.swagger.client.model.RepositoryList;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import jenkins.model.Jenkins;
 import jenkins.tasks.SimpleBuildStep;
 import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Response;
@@ -31,8 +50,17 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CloudManagerBuilder.class);
 
+  /** How long program and pipeline lists are cached. */
+  private static final long METADATA_TTL_MILLIS =
+      TimeUnit.MINUTES.toMillis(
+          Long.getLong(CloudManagerBuilder.class.getName() + ".metadataTtlMinutes", 5));
+
   private String program;
   private String pipeline;
+  // optional, when set the build fails if the pipeline does not build from this repository/branch
+  private String repository;
+  private String branch;
+  private boolean waitForCompletion;
 
   @DataBoundConstructor
   public CloudManagerBuilder(String program, String pipeline) {
@@ -58,6 +86,33 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
     this.pipeline = pipeline;
   }
 
+  public String getRepository() {
+    return repository;
+  }
+
+  @DataBoundSetter
+  public void setRepository(String repository) {
+    this.repository = repository;
+  }
+
+  public String getBranch() {
+    return branch;
+  }
+
+  @DataBoundSetter
+  public void setBranch(String branch) {
+    this.branch = branch;
+  }
+
+  public boolean isWaitForCompletion() {
+    return waitForCompletion;
+  }
+
+  @DataBoundSetter
+  public void setWaitForCompletion(boolean waitForCompletion) {
+    this.waitForCompletion = waitForCompletion;
+  }
+
   @Override
   public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener)
       throws InterruptedException, IOException {
@@ -79,15 +134,126 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
       throw new IllegalStateException("Pipeline Value is not configured");
     }
 
+    if (StringUtils.isNotBlank(getBranch())) {
+      verifyBranch(config, logger);
+    }
+
+    PipelineExecutionService executionService = new PipelineExecutionService(config);
+    Optional<ExecutionCheckpoint> checkpoint =
+        isWaitForCompletion()
+            ? findResumableCheckpoint(run, executionService, logger)
+            : Optional.empty();
+
+    if (checkpoint.isPresent()) {
+      // an earlier build started this execution but did not see it finish (e.g. restart)
+      logger.println(
+          "[INFO] Resuming execution "
+              + checkpoint.get().getExecutionId()
+              + " from its last checkpoint instead of starting the pipeline again.");
+    } else {
+      startPipeline(executionService, logger);
+    }
+
+    if (isWaitForCompletion()) {
+      ExecutionCheckpoint result =
+          new ExecutionMonitor(
+                  executionService,
+                  getProgram(),
+                  getPipeline(),
+                  logger,
+                  new StepMetricsRecorder(executionService, run, workspace, logger),
+                  run.getExternalizableId())
+              .waitForCompletion(checkpoint.orElse(null));
+      if (!"FINISHED".equals(result.getStatus())) {
+        throw new IllegalStateException(
+            "Pipeline execution "
+                + result.getExecutionId()
+                + " ended with status: "
+                + result.getStatus());
+      }
+      logger.println("[SUCCESS] Pipeline execution finished successfully!");
+    }
+  }
+
+  /**
+   * Find an execution an earlier build of this job started but did not see finish, e.g. because
+   * Jenkins restarted. Executions that already ended are dropped from the tracker.
+   */
+  private Optional<ExecutionCheckpoint> findResumableCheckpoint(
+      Run<?, ?> run, PipelineExecutionService executionService, PrintStream logger)
+      throws IOException {
+    ExecutionTracker tracker = ExecutionTracker.get();
+    for (ExecutionCheckpoint checkpoint : tracker.findInFlight(getProgram(), getPipeline())) {
+      if (!isResumableBy(checkpoint, run)) {
+        continue;
+      }
+      Response<PipelineExecution> response =
+          CloudManagerExecutor.get()
+              .execute(
+                  Lane.CRITICAL,
+                  executionService.getExecution(
+                      getProgram(), getPipeline(), checkpoint.getExecutionId()));
+      if (response.code() == 404) {
+        tracker.abandon(checkpoint);
+        continue;
+      } else if (!response.isSuccessful()) {
+        throw new IllegalStateException(
+            "Could not check tracked execution "
+                + checkpoint.getExecutionId()
+                + ", service responded with status: "
+                + response.code()
+                + " and error body: "
+                + response.errorBody().string());
+      }
+      String status = Objects.toString(response.body().getStatus(), null);
+      if (ExecutionCheckpoint.isFinal(status)) {
+        logger.println(
+            "[INFO] Tracked execution "
+                + checkpoint.getExecutionId()
+                + " already ended with status "
+                + status
+                + ", starting the pipeline again.");
+        tracker.checkpoint(checkpoint.withStatus(status));
+        continue;
+      }
+      return Optional.of(checkpoint);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Only the build that started an execution, or a later build of the same job once that one is
+   * no longer running, may resume waiting on it.
+   */
+  private static boolean isResumableBy(ExecutionCheckpoint checkpoint, Run<?, ?> run) {
+    String owner = checkpoint.getOwner();
+    if (owner == null) {
+      return false;
+    } else if (owner.equals(run.getExternalizableId())) {
+      return true; // the same build, resumed after a restart
+    } else if (!StringUtils.substringBeforeLast(owner, "#").equals(run.getParent().getFullName())) {
+      return false;
+    }
+    Run<?, ?> ownerRun;
+    try {
+      ownerRun = Run.fromExternalizableId(owner);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return ownerRun == null || !ownerRun.isBuilding();
+  }
+
+  private void startPipeline(PipelineExecutionService executionService, PrintStream logger)
+      throws IOException {
     logger.println(
         "[INFO] Starting pipeline with programId: "
             + getProgram()
             + " and pipelineId: "
             + getPipeline());
 
-    PipelineExecutionService executionService = new PipelineExecutionService(config);
     Response<Void> execResponse =
-        executionService.startPipeline(getProgram(), getPipeline()).execute();
+        CloudManagerExecutor.get()
+            .execute(Lane.CRITICAL, executionService.startPipeline(getProgram(), getPipeline()));
 
     if (execResponse.isSuccessful()) {
       logger.println(
@@ -101,6 +267,58 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
     }
   }
 
+  private void verifyBranch(CloudManagerGlobalConfig config, PrintStream logger)
+      throws IOException {
+    if (StringUtils.isBlank(getRepository())) {
+      throw new IllegalStateException("Branch is configured but Repository is not");
+    }
+    if (!BranchIndex.get()
+        .containsFresh(getProgram(), getRepository(), getBranch(), Lane.CRITICAL)) {
+      throw new IllegalStateException(
+          "Branch " + getBranch() + " does not exist in repository " + getRepository());
+    }
+
+    PipelinesService service = new PipelinesService(config);
+    Response<Pipeline> response =
+        CloudManagerExecutor.get()
+            .execute(Lane.CRITICAL, service.getPipeline(getProgram(), getPipeline()));
+    if (!response.isSuccessful()) {
+      throw new IllegalStateException(
+          "Could not get pipeline, service responded with status: "
+              + response.code()
+              + " and error body: "
+              + response.errorBody().string());
+    }
+    Optional<PipelinePhase> buildPhase =
+        response.body().getPhases().stream()
+            .filter(phase -> PipelinePhase.TypeEnum.BUILD == phase.getType())
+            .findFirst();
+    if (!buildPhase.isPresent()) {
+      throw new IllegalStateException("Pipeline " + getPipeline() + " has no build phase");
+    }
+    String phaseRepository = buildPhase.get().getRepositoryId();
+    // Cloud Manager assumes master when the phase has no branch
+    String phaseBranch = StringUtils.defaultIfBlank(buildPhase.get().getBranch(), "master");
+    if (!getRepository().equals(phaseRepository) || !getBranch().equals(phaseBranch)) {
+      throw new IllegalStateException(
+          "Pipeline "
+              + getPipeline()
+              + " builds branch "
+              + phaseBranch
+              + " of repository "
+              + phaseRepository
+              + ", expected branch "
+              + getBranch()
+              + " of repository "
+              + getRepository());
+    }
+    logger.println(
+        "[INFO] Verified pipeline builds branch "
+            + getBranch()
+            + " of repository "
+            + getRepository());
+  }
+
   @Extension
   public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
 
@@ -119,19 +337,30 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
     public ListBoxModel doFillProgramItems() throws IOException {
       ListBoxModel items = new ListBoxModel();
       items.add("Select Program", "");
-      ProgramsService service = new ProgramsService(config);
-      Response<ProgramList> response = service.getPrograms().execute();
-
-      if (response.isSuccessful()) {
-        response.body().getEmbedded().getPrograms().stream()
-            .forEach(p -> items.add(p.getName() + " (" + p.getId() + ")", p.getId()));
-      } else {
-        LOGGER.error(
-            "Request to get programs was not successful. "
-                + "Response code: "
-                + response.code()
-                + "Raw Response: "
-                + response.toString());
+      try {
+        String programs =
+            getCachedOptions(
+                "programs:" + config.getOrganizationID(),
+                () -> {
+                  ProgramsService service = new ProgramsService(config);
+                  Response<ProgramList> response =
+                      CloudManagerExecutor.get().execute(Lane.BULK, service.getPrograms());
+                  if (!response.isSuccessful()) {
+                    throw new AdobeIOException(
+                        "Request to get programs was not successful. "
+                            + "Response code: "
+                            + response.code()
+                            + "Raw Response: "
+                            + response.toString());
+                  }
+                  StringBuilder options = new StringBuilder();
+                  response.body().getEmbedded().getPrograms().stream()
+                      .forEach(p -> appendOption(options, p.getName(), p.getId()));
+                  return options.toString();
+                });
+        addOptions(items, programs);
+      } catch (AdobeIOException e) {
+        LOGGER.error(e.getMessage(), e);
         items.add("Could not get programs. Check Jenkins logs", "");
       }
       return items;
@@ -139,30 +368,151 @@ public class CloudManagerBuilder extends Builder implements SimpleBuildStep {
 
     public ListBoxModel doFillPipelineItems(@QueryParameter String program) throws IOException {
       ListBoxModel items = new ListBoxModel();
-      PipelinesService service = new PipelinesService(config);
       if (StringUtils.isBlank(program)) {
         return items;
       }
-      Response<PipelineList> response = service.getPipelines(program).execute();
+      try {
+        String pipelines =
+            getCachedOptions(
+                "pipelines:" + config.getOrganizationID() + ":" + program,
+                () -> {
+                  PipelinesService service = new PipelinesService(config);
+                  Response<PipelineList> response =
+                      CloudManagerExecutor.get().execute(Lane.BULK, service.getPipelines(program));
+                  if (!response.isSuccessful()) {
+                    throw new AdobeIOException(
+                        "Request to get pipelines was not successful. "
+                            + "Response code: "
+                            + response.code()
+                            + "Raw Response: "
+                            + response.toString());
+                  }
+                  StringBuilder options = new StringBuilder();
+                  response
+                      .body()
+                      .getEmbedded()
+                      .getPipelines()
+                      .forEach(p -> appendOption(options, p.getName(), p.getId()));
+                  return options.toString();
+                });
+        addOptions(items, pipelines);
+      } catch (AdobeIOException e) {
+        LOGGER.error(e.getMessage(), e);
+        items.add("Could not get pipelines. Check Jenkins logs", "");
+      }
+      return items;
+    }
+
+    /**
+     * Dropdown options are cached as {@code id<TAB>name} lines in the shared cache, so controllers
+     * sharing it fetch them once.
+     */
+    private String getCachedOptions(String key, OptionsLoader loader) throws IOException {
+      return config
+          .getSharedCache()
+          .get(
+              key,
+              () ->
+                  new SharedCache.Value(
+                      loader.load(), System.currentTimeMillis() + METADATA_TTL_MILLIS));
+    }
+
+    private static void appendOption(StringBuilder options, String name, String id) {
+      options
+          .append(id)
+          .append('\t')
+          .append(StringUtils.defaultString(name).replaceAll("[\\t\\n]", " "))
+          .append('\n');
+    }
+
+    private static void addOptions(ListBoxModel items, String options) {
+      for (String line : StringUtils.split(options, '\n')) {
+        String id = StringUtils.substringBefore(line, "\t");
+        String name = StringUtils.substringAfter(line, "\t");
+        items.add(name + " (" + id + ")", id);
+      }
+    }
+
+    public ListBoxModel doFillRepositoryItems(
+        @AncestorInPath Item item, @QueryParameter String program) throws IOException {
+      checkConfigurePermission(item);
+      ListBoxModel items = new ListBoxModel();
+      items.add("Any Repository", "");
+      if (StringUtils.isBlank(program)) {
+        return items;
+      }
+      RepositoriesService service = new RepositoriesService(config);
+      Response<RepositoryList> response =
+          CloudManagerExecutor.get().execute(Lane.BULK, service.getRepositories(program));
       if (response.isSuccessful()) {
-        response
-            .body()
-            .getEmbedded()
-            .getPipelines()
+        response.body().getEmbedded().getRepositories().stream()
             .forEach(
-                p -> {
-                  items.add(p.getName() + " (" + p.getId() + ")", p.getId());
+                r -> {
+                  String id = RepositoriesService.getRepositoryId(r);
+                  items.add(r.getRepo() + " (" + id + ")", id);
                 });
       } else {
         LOGGER.error(
-            "Request to get pipelines was not successful. "
+            "Request to get repositories was not successful. "
                 + "Response code: "
                 + response.code()
                 + "Raw Response: "
                 + response.toString());
-        items.add("Could not get pipelines. Check Jenkins logs", "");
+        items.add("Could not get repositories. Check Jenkins logs", "");
       }
       return items;
     }
+
+    public ComboBoxModel doFillBranchItems(
+        @AncestorInPath Item item,
+        @QueryParameter String program,
+        @QueryParameter String repository)
+        throws IOException {
+      checkConfigurePermission(item);
+      return new ComboBoxModel(BranchIndex.get().getBranches(program, repository, Lane.BULK));
+    }
+
+    @POST
+    public FormValidation doCheckBranch(
+        @AncestorInPath Item item,
+        @QueryParameter String program,
+        @QueryParameter String repository,
+        @QueryParameter String value)
+        throws IOException {
+      checkConfigurePermission(item);
+      if (StringUtils.isBlank(value)) {
+        return FormValidation.ok();
+      } else if (StringUtils.isBlank(repository)) {
+        return FormValidation.error("Select a repository to verify the branch against");
+      }
+      BranchIndex index = BranchIndex.get();
+      if (index.contains(program, repository, value, Lane.BULK)) {
+        return FormValidation.ok();
+      }
+      List<String> candidates =
+          index.search(program, repository, StringUtils.left(value, 3), 5, Lane.BULK);
+      return FormValidation.warning(
+          "Branch "
+              + value
+              + " does not exist in this repository"
+              + (candidates.isEmpty() ? "" : ". Did you mean: " + String.join(", ", candidates)));
+    }
+
+    /**
+     * Repository and branch names are read with the controller's credentials, only show them to
+     * users who may configure the job, or administrators outside of a job.
+     */
+    private static void checkConfigurePermission(Item item) {
+      if (item == null) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+      } else {
+        item.checkPermission(Item.CONFIGURE);
+      }
+    }
+
+    @FunctionalInterface
+    private interface OptionsLoader {
+      String load() throws IOException;
+    }
   }
 }
@@ -1,8 +1,18 @@
 package io.jenkins.plugins.cloudmanager;
 
 import hudson.Extension;
+import hudson.Util;
 import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
 import hudson.util.Secret;
+import io.jenkins.plugins.cloudmanager.cache.FallbackSharedCache;
+import io.jenkins.plugins.cloudmanager.cache.FileSharedCache;
+import io.jenkins.plugins.cloudmanager.cache.InProcessSharedCache;
+import io.jenkins.plugins.cloudmanager.cache.SharedCache;
+import io.jenkins.plugins.cloudmanager.client.JsonEngine;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang3.StringUtils;
@@ -16,9 +26,14 @@ public class CloudManagerGlobalConfig extends GlobalConfiguration implements Ado
 
   private String organizationID, technicalAccountId;
   private Secret clientSecret, privateKey, apiKey;
+  private JsonEngine jsonEngine;
 
-  // not tied to a field, contains the runtime secret
-  private transient String accessToken;
+  // optional directory shared with other controllers to share tokens and metadata
+  private String sharedCacheDirectory;
+
+  // not tied to a field, holds the runtime secrets, rebuilt when its settings change
+  private transient volatile SharedCache sharedCache;
+  private final transient Object cacheLock = new Object();
 
   public CloudManagerGlobalConfig() {
     // When Jenkins is restarted, load any saved configuration from disk.
@@ -35,17 +50,72 @@ public class CloudManagerGlobalConfig extends GlobalConfiguration implements Ado
   }
 
   public String refreshAccessToken() throws AdobeIOException {
-    this.accessToken = null;
-    this.accessToken = getFreshAccessToken(this);
-    return this.accessToken;
+    return refreshAccessToken(null);
+  }
+
+  /**
+   * Get a new access token, unless another caller (or controller) already replaced the rejected
+   * one.
+   *
+   * @param rejectedToken the token Cloud Manager refused, null to drop any cached token.
+   */
+  public String refreshAccessToken(String rejectedToken) throws AdobeIOException {
+    try {
+      getSharedCache().invalidate(getTokenCacheKey(), rejectedToken);
+    } catch (AdobeIOException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new AdobeIOException("Could not invalidate the cached access token", e);
+    }
+    return getAccessToken();
   }
 
   // GETTERS / SETTERS
   public String getAccessToken() throws AdobeIOException {
-    if (StringUtils.isBlank(accessToken)) {
-      accessToken = refreshAccessToken();
+    try {
+      // only one caller mints a token, the others wait for it.
+      return getSharedCache()
+          .get(getTokenCacheKey(), () -> CloudManagerAuthUtil.getExpiringAccessToken(this));
+    } catch (AdobeIOException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new AdobeIOException("Could not get the access token from the shared cache", e);
     }
-    return accessToken;
+  }
+
+  private String getTokenCacheKey() {
+    // a different token is needed whenever the credentials change
+    return "token:"
+        + organizationID
+        + ":"
+        + technicalAccountId
+        + ":"
+        + Util.getDigestOf(
+            StringUtils.defaultString(CloudManagerAuthUtil.safeGetPlainText(apiKey)));
+  }
+
+  /**
+   * @return the cache shared with other controllers, or an in-process one if none is set up. The
+   *     shared cache is optional, while it fails values are cached on this controller only.
+   */
+  public SharedCache getSharedCache() {
+    SharedCache cache = sharedCache;
+    if (cache == null) {
+      synchronized (cacheLock) {
+        cache = sharedCache;
+        if (cache == null) {
+          cache =
+              StringUtils.isBlank(sharedCacheDirectory)
+                  ? new InProcessSharedCache()
+                  : new FallbackSharedCache(
+                      new FileSharedCache(
+                          Paths.get(sharedCacheDirectory),
+                          CloudManagerAuthUtil.safeGetPlainText(clientSecret)));
+          sharedCache = cache;
+        }
+      }
+    }
+    return cache;
   }
 
   public Secret getApiKey() {
@@ -85,6 +155,7 @@ public class CloudManagerGlobalConfig extends GlobalConfiguration implements Ado
   @DataBoundSetter
   public void setClientSecret(Secret clientSecret) {
     this.clientSecret = clientSecret;
+    this.sharedCache = null; // the file cache is encrypted with it
     save();
   }
 
@@ -98,6 +169,52 @@ public class CloudManagerGlobalConfig extends GlobalConfiguration implements Ado
     save();
   }
 
+  @Override
+  public JsonEngine getJsonEngine() {
+    return jsonEngine == null ? JsonEngine.GSON : jsonEngine;
+  }
+
+  @DataBoundSetter
+  public void setJsonEngine(JsonEngine jsonEngine) {
+    this.jsonEngine = jsonEngine;
+    save();
+  }
+
+  public String getSharedCacheDirectory() {
+    return sharedCacheDirectory;
+  }
+
+  @DataBoundSetter
+  public void setSharedCacheDirectory(String sharedCacheDirectory) {
+    this.sharedCacheDirectory = Util.fixEmptyAndTrim(sharedCacheDirectory);
+    this.sharedCache = null;
+    save();
+  }
+
+  @POST
+  public FormValidation doCheckSharedCacheDirectory(@QueryParameter String value) {
+    // probes the controller file system
+    Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+    if (StringUtils.isBlank(value)) {
+      return FormValidation.ok("Tokens and metadata are only cached on this controller");
+    }
+    File dir = new File(value.trim());
+    if (!dir.isAbsolute()) {
+      return FormValidation.error("Must be an absolute path");
+    } else if (dir.exists() && !(dir.isDirectory() && dir.canWrite())) {
+      return FormValidation.error("Not a writable directory");
+    }
+    return FormValidation.ok();
+  }
+
+  public ListBoxModel doFillJsonEngineItems() {
+    ListBoxModel items = new ListBoxModel();
+    for (JsonEngine engine : JsonEngine.values()) {
+      items.add(engine.getDisplayName(), engine.name());
+    }
+    return items;
+  }
+
   @Override
   public String toString() {
     return super.toString();
@@ -0,0 +1,132 @@
+package io.jenkins.plugins.cloudmanager;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Last known state of a pipeline execution being waited on. Serialized as a single tab separated
+ * line in the {@link ExecutionTracker} journal.
+ */
+public final class ExecutionCheckpoint {
+
+  private static final String SEPARATOR = "\t";
+  private static final String NONE = "-";
+
+  /** Status of an execution the plugin stopped tracking without seeing it end. */
+  public static final String ABANDONED = "ABANDONED";
+
+  private final String executionId, programId, pipelineId, status, stepId, stepStatus;
+  // number of execution steps already reported to the build log
+  private final int logOffset;
+  // externalizable id of the build waiting on the execution
+  private final String owner;
+
+  public ExecutionCheckpoint(
+      String executionId,
+      String programId,
+      String pipelineId,
+      String status,
+      String stepId,
+      String stepStatus,
+      int logOffset,
+      String owner) {
+    this.executionId = executionId;
+    this.programId = programId;
+    this.pipelineId = pipelineId;
+    this.status = status;
+    this.stepId = stepId;
+    this.stepStatus = stepStatus;
+    this.logOffset = logOffset;
+    this.owner = owner;
+  }
+
+  public String getExecutionId() {
+    return executionId;
+  }
+
+  public String getProgramId() {
+    return programId;
+  }
+
+  public String getPipelineId() {
+    return pipelineId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public String getStepId() {
+    return stepId;
+  }
+
+  public String getStepStatus() {
+    return stepStatus;
+  }
+
+  public int getLogOffset() {
+    return logOffset;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  /** @return a copy of this checkpoint with another execution status. */
+  public ExecutionCheckpoint withStatus(String status) {
+    return new ExecutionCheckpoint(
+        executionId, programId, pipelineId, status, stepId, stepStatus, logOffset, owner);
+  }
+
+  /** @return true once the execution reached a final state and no longer needs tracking */
+  public boolean isDone() {
+    return isFinal(status);
+  }
+
+  /** @return true if an execution with this status will not change anymore. */
+  public static boolean isFinal(String status) {
+    return "FINISHED".equals(status)
+        || "CANCELLED".equals(status)
+        || "ERROR".equals(status)
+        || "FAILED".equals(status)
+        || ABANDONED.equals(status);
+  }
+
+  String toLine() {
+    return String.join(
+        SEPARATOR,
+        executionId,
+        programId,
+        pipelineId,
+        StringUtils.defaultIfBlank(status, NONE),
+        StringUtils.defaultIfBlank(stepId, NONE),
+        StringUtils.defaultIfBlank(stepStatus, NONE),
+        Integer.toString(logOffset),
+        StringUtils.defaultIfBlank(owner, NONE));
+  }
+
+  /** @return the parsed checkpoint, or null if the line is malformed (e.g. a torn write) */
+  static ExecutionCheckpoint fromLine(String line) {
+    String[] parts = line.split(SEPARATOR, -1);
+    // lines written before the owner column have no owner, they are never resumed
+    if (parts.length != 7 && parts.length != 8) {
+      return null;
+    }
+    try {
+      return new ExecutionCheckpoint(
+          parts[0],
+          parts[1],
+          parts[2],
+          orNull(parts[3]),
+          orNull(parts[4]),
+          orNull(parts[5]),
+          Integer.parseInt(parts[6]),
+          parts.length == 8 ? orNull(parts[7]) : null);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String orNull(String value) {
+    return NONE.equals(value) ? null : value;
+  }
+}
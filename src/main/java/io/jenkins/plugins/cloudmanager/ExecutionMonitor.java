@@ -0,0 +1,201 @@
+package io.jenkins.plugins.cloudmanager;
+
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor.Lane;
+import io.jenkins.plugins.cloudmanager.client.PipelineExecutionService;
+import io.swagger.client.model.PipelineExecution;
+import io.swagger.client.model.PipelineExecutionStepState;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Response;
+
+/**
+ * Polls a pipeline execution until it reaches a final state, reporting step progress to the build
+ * log. Every change is checkpointed with the {@link ExecutionTracker} so a later build can pick up
+ * where this one stopped.
+ */
+public class ExecutionMonitor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionMonitor.class);
+
+  private static final long POLL_MILLIS =
+      TimeUnit.SECONDS.toMillis(
+          Long.getLong(ExecutionMonitor.class.getName() + ".pollSeconds", 30));
+
+  /** Give up after this many failed polls in a row, whether the request failed or got an error. */
+  private static final int MAX_CONSECUTIVE_FAILURES =
+      Integer.getInteger(ExecutionMonitor.class.getName() + ".maxFailures", 10);
+
+  private final PipelineExecutionService service;
+  private final String programId, pipelineId;
+  private final PrintStream logger;
+  private final StepMetricsRecorder metricsRecorder;
+  // externalizable id of the build waiting, recorded in the checkpoints
+  private final String owner;
+
+  public ExecutionMonitor(
+      PipelineExecutionService service,
+      String programId,
+      String pipelineId,
+      PrintStream logger,
+      StepMetricsRecorder metricsRecorder,
+      String owner) {
+    this.service = service;
+    this.programId = programId;
+    this.pipelineId = pipelineId;
+    this.logger = logger;
+    this.metricsRecorder = metricsRecorder;
+    this.owner = owner;
+  }
+
+  /**
+   * Wait for the execution to finish.
+   *
+   * @param checkpoint where to resume from, or null to wait on the pipeline's current execution.
+   * @return the final checkpoint of the execution.
+   */
+  public ExecutionCheckpoint waitForCompletion(ExecutionCheckpoint checkpoint)
+      throws IOException, InterruptedException {
+    ExecutionTracker tracker = ExecutionTracker.get();
+    CloudManagerExecutor executor = CloudManagerExecutor.get();
+    if (checkpoint == null) {
+      Response<PipelineExecution> response =
+          executor.execute(Lane.CRITICAL, service.getCurrentExecution(programId, pipelineId));
+      if (!response.isSuccessful()) {
+        throw new IllegalStateException(
+            "Could not get the current execution, service responded with status: "
+                + response.code()
+                + " and error body: "
+                + response.errorBody().string());
+      }
+      checkpoint = advance(response.body(), null);
+      tracker.checkpoint(checkpoint);
+    }
+    logger.println("[INFO] Waiting for execution " + checkpoint.getExecutionId() + " to finish");
+
+    int failures = 0;
+    try {
+      while (!checkpoint.isDone()) {
+        Thread.sleep(POLL_MILLIS);
+        Response<PipelineExecution> response;
+        try {
+          response =
+              executor.execute(
+                  Lane.CRITICAL,
+                  service.getExecution(programId, pipelineId, checkpoint.getExecutionId()));
+        } catch (InterruptedIOException e) {
+          throw e;
+        } catch (IOException e) {
+          // network errors, timeouts and a saturated lane are as transient as a server error
+          failures++;
+          LOGGER.warn("Request to get execution {} failed", checkpoint.getExecutionId(), e);
+          if (failures >= MAX_CONSECUTIVE_FAILURES) {
+            throw new AdobeIOException(
+                "Could not get execution "
+                    + checkpoint.getExecutionId()
+                    + " ("
+                    + failures
+                    + " consecutive failures)",
+                e);
+          }
+          continue;
+        }
+        if (!response.isSuccessful()) {
+          failures++;
+          LOGGER.warn(
+              "Request to get execution {} was not successful. Response code: {}",
+              checkpoint.getExecutionId(),
+              response.code());
+          if (!isRetryable(response.code()) || failures >= MAX_CONSECUTIVE_FAILURES) {
+            throw new IllegalStateException(
+                "Could not get execution "
+                    + checkpoint.getExecutionId()
+                    + ", service responded with status: "
+                    + response.code()
+                    + " ("
+                    + failures
+                    + " consecutive failures)");
+          }
+          continue;
+        }
+        failures = 0;
+        ExecutionCheckpoint next = advance(response.body(), checkpoint);
+        if (!next.toLine().equals(checkpoint.toLine())) {
+          tracker.checkpoint(next);
+        }
+        checkpoint = next;
+      }
+    } catch (InterruptedException | IOException | RuntimeException e) {
+      Jenkins jenkins = Jenkins.getInstanceOrNull();
+      if (jenkins != null && jenkins.isTerminating()) {
+        // Jenkins is going down, keep the checkpoint so the wait resumes after the restart
+        throw e;
+      }
+      // aborted or failed, nobody waits on this execution anymore
+      tracker.abandon(checkpoint);
+      throw e;
+    }
+    return checkpoint;
+  }
+
+  /** Server errors, rate limiting and expired tokens are worth polling again, other errors not. */
+  private static boolean isRetryable(int code) {
+    return code == 401 || code == 429 || code >= 500;
+  }
+
+  /** Report the steps that progressed since the previous checkpoint and build the next one. */
+  private ExecutionCheckpoint advance(PipelineExecution execution, ExecutionCheckpoint previous)
+      throws InterruptedException {
+    List<PipelineExecutionStepState> steps =
+        Optional.ofNullable(execution.getEmbedded())
+            .map(embedded -> embedded.getStepStates())
+            .orElse(Collections.emptyList());
+    int offset = previous == null ? 0 : previous.getLogOffset();
+    // steps run in order, everything before the offset was already reported
+    while (offset < steps.size() && isDone(steps.get(offset))) {
+      PipelineExecutionStepState step = steps.get(offset);
+      logger.println("[INFO] Step " + step.getAction() + " ended with status " + step.getStatus());
+      metricsRecorder.onStepDone(programId, pipelineId, execution.getId(), step);
+      offset++;
+    }
+
+    String stepId = null, stepStatus = null;
+    if (offset < steps.size()) {
+      PipelineExecutionStepState step = steps.get(offset);
+      stepId = step.getStepId();
+      stepStatus = Objects.toString(step.getStatus(), null);
+      if (previous == null
+          || !Objects.equals(stepId, previous.getStepId())
+          || !Objects.equals(stepStatus, previous.getStepStatus())) {
+        logger.println("[INFO] Step " + step.getAction() + " is " + stepStatus);
+      }
+    }
+    return new ExecutionCheckpoint(
+        execution.getId(),
+        programId,
+        pipelineId,
+        Objects.toString(execution.getStatus(), null),
+        stepId,
+        stepStatus,
+        offset,
+        owner);
+  }
+
+  private static boolean isDone(PipelineExecutionStepState step) {
+    PipelineExecutionStepState.StatusEnum status = step.getStatus();
+    return status == PipelineExecutionStepState.StatusEnum.FINISHED
+        || status == PipelineExecutionStepState.StatusEnum.ERROR
+        || status == PipelineExecutionStepState.StatusEnum.ROLLED_BACK
+        || status == PipelineExecutionStepState.StatusEnum.CANCELLED
+        || status == PipelineExecutionStepState.StatusEnum.FAILED;
+  }
+}
@@ -0,0 +1,131 @@
+package io.jenkins.plugins.cloudmanager;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.util.AtomicFileWriter;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jenkins.model.Jenkins;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the pipeline executions the plugin is waiting on, so waiting can resume after a
+ * Jenkins restart. Checkpoints are appended to a journal in {@code JENKINS_HOME}; the latest line
+ * for an execution wins. The journal is compacted down to in-flight executions once it grows, so
+ * recovery only reads roughly as many lines as there are executions still running.
+ */
+@Extension
+public class ExecutionTracker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionTracker.class);
+  private static final String JOURNAL_NAME = "cloudmanager-executions.log";
+  private static final int COMPACT_THRESHOLD = 512;
+
+  private final File journal;
+  // latest checkpoint of every in-flight execution, keyed by execution id
+  private final Map<String, ExecutionCheckpoint> inFlight = new LinkedHashMap<>();
+  private int journalLines;
+  private boolean loaded;
+
+  public ExecutionTracker() {
+    this(new File(Jenkins.get().getRootDir(), JOURNAL_NAME));
+  }
+
+  ExecutionTracker(File journal) {
+    this.journal = journal;
+  }
+
+  /** @return the singleton instance */
+  public static ExecutionTracker get() {
+    return ExtensionList.lookupSingleton(ExecutionTracker.class);
+  }
+
+  /** @return the tracked in-flight executions of the given pipeline. */
+  public synchronized List<ExecutionCheckpoint> findInFlight(String programId, String pipelineId)
+      throws IOException {
+    ensureLoaded();
+    return inFlight.values().stream()
+        .filter(c -> c.getProgramId().equals(programId) && c.getPipelineId().equals(pipelineId))
+        .collect(Collectors.toList());
+  }
+
+  /** Record the latest state of an execution. Executions in a final state stop being tracked. */
+  public synchronized void checkpoint(ExecutionCheckpoint checkpoint) throws IOException {
+    ensureLoaded();
+    Files.write(
+        journal.toPath(),
+        (checkpoint.toLine() + "\n").getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+    journalLines++;
+    if (checkpoint.isDone()) {
+      inFlight.remove(checkpoint.getExecutionId());
+    } else {
+      inFlight.put(checkpoint.getExecutionId(), checkpoint);
+    }
+    if (journalLines > COMPACT_THRESHOLD && journalLines > 4 * inFlight.size()) {
+      compact();
+    }
+  }
+
+  /** Stop tracking an execution that won't be waited on anymore. */
+  public void abandon(ExecutionCheckpoint checkpoint) throws IOException {
+    checkpoint(checkpoint.withStatus(ExecutionCheckpoint.ABANDONED));
+  }
+
+  private void ensureLoaded() throws IOException {
+    if (loaded) {
+      return;
+    }
+    if (journal.exists()) {
+      try (BufferedReader reader =
+          Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          journalLines++;
+          ExecutionCheckpoint checkpoint = ExecutionCheckpoint.fromLine(line);
+          if (checkpoint == null) {
+            LOGGER.warn("Skipping malformed line in {}: {}", journal, line);
+          } else if (checkpoint.isDone()) {
+            inFlight.remove(checkpoint.getExecutionId());
+          } else {
+            inFlight.put(checkpoint.getExecutionId(), checkpoint);
+          }
+        }
+      }
+      LOGGER.info("Recovered {} in-flight Cloud Manager executions", inFlight.size());
+    }
+    loaded = true;
+    if (journalLines > inFlight.size()) {
+      compact();
+    }
+  }
+
+  private void compact() throws IOException {
+    AtomicFileWriter writer = new AtomicFileWriter(journal.toPath(), StandardCharsets.UTF_8);
+    try {
+      for (ExecutionCheckpoint checkpoint : inFlight.values()) {
+        writeLine(writer, checkpoint);
+      }
+      writer.commit();
+    } finally {
+      writer.abort();
+    }
+    journalLines = inFlight.size();
+  }
+
+  private static void writeLine(Writer writer, ExecutionCheckpoint checkpoint) throws IOException {
+    writer.write(checkpoint.toLine());
+    writer.write("\n");
+  }
+}
@@ -0,0 +1,123 @@
+package io.jenkins.plugins.cloudmanager;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.util.DataSetBuilder;
+import hudson.util.Graph;
+import io.jenkins.plugins.cloudmanager.StepMetricsHistory.Point;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import jenkins.model.TransientActionFactory;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.CategoryDataset;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/** Job page showing the trend of every recorded Cloud Manager step metric. */
+public class StepMetricsAction implements Action {
+
+  /** Number of builds shown on a trend graph. */
+  private static final int TREND_SIZE = 100;
+
+  private final Job<?, ?> job;
+
+  public StepMetricsAction(Job<?, ?> job) {
+    this.job = job;
+  }
+
+  public Job<?, ?> getJob() {
+    return job;
+  }
+
+  public List<String> getKpis() {
+    return new StepMetricsHistory(job).getKpis();
+  }
+
+  @Override
+  public String getIconFileName() {
+    return "graph.png";
+  }
+
+  @Override
+  public String getDisplayName() {
+    return "Cloud Manager Metrics";
+  }
+
+  @Override
+  public String getUrlName() {
+    return "cloudmanager-metrics";
+  }
+
+  public void doTrend(StaplerRequest req, StaplerResponse rsp, @QueryParameter String kpi)
+      throws IOException {
+    StepMetricsHistory history = new StepMetricsHistory(job);
+    List<Point> points = history.getPoints(kpi, TREND_SIZE);
+    new Graph(history.getLastModified(kpi), 500, 200) {
+      @Override
+      protected JFreeChart createGraph() {
+        DataSetBuilder<String, BuildLabel> data = new DataSetBuilder<>();
+        for (Point point : points) {
+          data.add(point.getValue(), kpi, new BuildLabel(point.getBuildNumber()));
+        }
+        CategoryDataset dataset = data.build();
+        return ChartFactory.createLineChart(
+            null, null, kpi, dataset, PlotOrientation.VERTICAL, false, true, false);
+      }
+    }.doPng(req, rsp);
+  }
+
+  /**
+   * Column key of a build, ordered by build number. The data set sorts its columns, a plain {@code
+   * "#n"} string would put #10 before #9.
+   */
+  static final class BuildLabel implements Comparable<BuildLabel> {
+    private final int number;
+
+    BuildLabel(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int compareTo(BuildLabel other) {
+      return Integer.compare(number, other.number);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof BuildLabel && ((BuildLabel) o).number == number;
+    }
+
+    @Override
+    public int hashCode() {
+      return number;
+    }
+
+    @Override
+    public String toString() {
+      return "#" + number;
+    }
+  }
+
+  @Extension
+  public static class Factory extends TransientActionFactory<Job> {
+
+    @Override
+    public Class<Job> type() {
+      return Job.class;
+    }
+
+    @Override
+    public Collection<? extends Action> createFor(Job target) {
+      if (!new StepMetricsHistory(target).exists()) {
+        return Collections.emptyList();
+      }
+      return Collections.singletonList(new StepMetricsAction(target));
+    }
+  }
+}
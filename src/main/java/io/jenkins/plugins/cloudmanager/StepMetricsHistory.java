@@ -0,0 +1,162 @@
+package io.jenkins.plugins.cloudmanager;
+
+import hudson.model.Job;
+import io.swagger.client.model.Metric;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Step metric values of every build of a job, stored column wise: one small file per KPI holding a
+ * {@code build number, value, passed} line per build. Drawing the trend of a KPI only reads that
+ * KPI's file, build records are never loaded.
+ */
+public class StepMetricsHistory {
+
+  private static final String DIR_NAME = "cloudmanager-metrics";
+  private static final String EXTENSION = ".tsv";
+  static final int CHUNK_SIZE = 4096;
+
+  private final File dir;
+
+  public StepMetricsHistory(Job<?, ?> job) {
+    this(new File(job.getRootDir(), DIR_NAME));
+  }
+
+  StepMetricsHistory(File dir) {
+    this.dir = dir;
+  }
+
+  public boolean exists() {
+    return dir.isDirectory();
+  }
+
+  /** Append a build's value of the given metric to its KPI column. */
+  public void append(int buildNumber, Metric metric) throws IOException {
+    String kpi = getKpi(metric);
+    if (kpi == null || !NumberUtils.isCreatable(metric.getActualValue())) {
+      return; // only numeric values can be trended
+    }
+    Files.createDirectories(dir.toPath());
+    String line =
+        buildNumber
+            + "\t"
+            + metric.getActualValue()
+            + "\t"
+            + Boolean.TRUE.equals(metric.isPassed())
+            + "\n";
+    Files.write(
+        new File(dir, kpi + EXTENSION).toPath(),
+        line.getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+
+  /** @return the KPIs with recorded values, sorted by name. */
+  public List<String> getKpis() {
+    String[] files = dir.list((d, name) -> name.endsWith(EXTENSION));
+    if (files == null) {
+      return Collections.emptyList();
+    }
+    List<String> kpis = new ArrayList<>();
+    Arrays.stream(files).sorted().forEach(f -> kpis.add(StringUtils.removeEnd(f, EXTENSION)));
+    return kpis;
+  }
+
+  /** @return the last {@code limit} recorded values of a KPI, oldest first. */
+  public List<Point> getPoints(String kpi, int limit) throws IOException {
+    File column = new File(dir, sanitize(kpi) + EXTENSION);
+    if (!column.isFile()) {
+      return Collections.emptyList();
+    }
+    List<Point> points = new ArrayList<>();
+    for (String line : readLastLines(column, limit)) {
+      String[] parts = line.split("\t");
+      if (parts.length == 3 && NumberUtils.isCreatable(parts[0])) {
+        points.add(
+            new Point(
+                Integer.parseInt(parts[0]),
+                NumberUtils.toDouble(parts[1]),
+                Boolean.parseBoolean(parts[2])));
+      }
+    }
+    return points;
+  }
+
+  /**
+   * Read the file backwards from its end until {@code limit} lines are found, so the cost does not
+   * depend on how many builds the column holds.
+   */
+  static List<String> readLastLines(File file, int limit) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      long end = raf.length();
+      long start = end;
+      int newlines = 0;
+      byte[] chunk = new byte[CHUNK_SIZE];
+      // the file ends with a newline, limit lines need limit + 1 newlines before them
+      while (start > 0 && newlines <= limit) {
+        int size = (int) Math.min(CHUNK_SIZE, start);
+        start -= size;
+        raf.seek(start);
+        raf.readFully(chunk, 0, size);
+        for (int i = size - 1; i >= 0; i--) {
+          if (chunk[i] == '\n' && ++newlines > limit) {
+            start += i + 1;
+            break;
+          }
+        }
+      }
+      byte[] tail = new byte[(int) (end - start)];
+      raf.seek(start);
+      raf.readFully(tail);
+      String[] lines = StringUtils.split(new String(tail, StandardCharsets.UTF_8), '\n');
+      return Arrays.asList(lines).subList(Math.max(0, lines.length - limit), lines.length);
+    }
+  }
+
+  public long getLastModified(String kpi) {
+    return new File(dir, sanitize(kpi) + EXTENSION).lastModified();
+  }
+
+  private static String getKpi(Metric metric) {
+    String kpi = StringUtils.defaultIfBlank(metric.getKpi(), metric.getId());
+    return kpi == null ? null : sanitize(kpi);
+  }
+
+  private static String sanitize(String kpi) {
+    return kpi.replaceAll("[^A-Za-z0-9_.-]", "_");
+  }
+
+  public static final class Point {
+    private final int buildNumber;
+    private final double value;
+    private final boolean passed;
+
+    Point(int buildNumber, double value, boolean passed) {
+      this.buildNumber = buildNumber;
+      this.value = value;
+      this.passed = passed;
+    }
+
+    public int getBuildNumber() {
+      return buildNumber;
+    }
+
+    public double getValue() {
+      return value;
+    }
+
+    public boolean isPassed() {
+      return passed;
+    }
+  }
+}
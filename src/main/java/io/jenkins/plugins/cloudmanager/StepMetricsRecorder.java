@@ -0,0 +1,138 @@
+package io.jenkins.plugins.cloudmanager;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Run;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor.Lane;
+import io.jenkins.plugins.cloudmanager.client.PipelineExecutionService;
+import io.swagger.client.model.Metric;
+import io.swagger.client.model.PipelineExecutionStepState;
+import io.swagger.client.model.PipelineStepMetrics;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import retrofit2.Response;
+
+/**
+ * Fetches the metrics of code quality, security and performance steps once they are done. Metrics
+ * are written as a JUnit report in the workspace, so they can be published with the junit step,
+ * and appended to the job's {@link StepMetricsHistory} for the trend graphs.
+ */
+public class StepMetricsRecorder {
+
+  /** Report files are written to this directory in the workspace. */
+  public static final String REPORT_DIR = "cloudmanager-reports";
+
+  // step actions that produce metrics
+  private static final Set<String> METRIC_ACTIONS =
+      new HashSet<>(Arrays.asList("codeQuality", "securityTest", "loadTest"));
+
+  private final PipelineExecutionService service;
+  private final Run<?, ?> run;
+  private final FilePath workspace;
+  private final PrintStream logger;
+
+  public StepMetricsRecorder(
+      PipelineExecutionService service, Run<?, ?> run, FilePath workspace, PrintStream logger) {
+    this.service = service;
+    this.run = run;
+    this.workspace = workspace;
+    this.logger = logger;
+  }
+
+  /** Called once for every step that reached a final state. */
+  public void onStepDone(
+      String programId, String pipelineId, String executionId, PipelineExecutionStepState step)
+      throws InterruptedException {
+    if (!METRIC_ACTIONS.contains(step.getAction())) {
+      return;
+    }
+    try {
+      Response<PipelineStepMetrics> response =
+          CloudManagerExecutor.get()
+              .execute(
+                  Lane.BULK,
+                  service.getStepMetrics(
+                      programId, pipelineId, executionId, step.getPhaseId(), step.getStepId()));
+      if (!response.isSuccessful()) {
+        logger.println(
+            "[WARN] Could not get metrics of step "
+                + step.getAction()
+                + ", service responded with status: "
+                + response.code());
+        return;
+      }
+      List<Metric> metrics =
+          Optional.ofNullable(response.body().getMetrics()).orElse(Collections.emptyList());
+      FilePath report =
+          workspace.child(REPORT_DIR).child(executionId + "-" + step.getAction() + ".xml");
+      report.write(toJUnit(step.getAction(), metrics), StandardCharsets.UTF_8.name());
+
+      StepMetricsHistory history = new StepMetricsHistory(run.getParent());
+      for (Metric metric : metrics) {
+        history.append(run.getNumber(), metric);
+      }
+      logger.println("[INFO] Recorded " + metrics.size() + " metrics of step " + step.getAction());
+    } catch (IOException e) {
+      // metrics are informational, don't fail the build over them.
+      logger.println(
+          "[WARN] Could not record metrics of step " + step.getAction() + ": " + e.getMessage());
+    }
+  }
+
+  /** One test suite per step and one test case per metric. Overridden metrics are skipped. */
+  static String toJUnit(String action, List<Metric> metrics) {
+    long failures =
+        metrics.stream()
+            .filter(
+                m -> !Boolean.TRUE.equals(m.isPassed()) && !Boolean.TRUE.equals(m.isOverride()))
+            .count();
+    StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    xml.append("<testsuite name=\"cloudmanager.")
+        .append(escape(action))
+        .append("\" tests=\"")
+        .append(metrics.size())
+        .append("\" failures=\"")
+        .append(failures)
+        .append("\">\n");
+    for (Metric metric : metrics) {
+      String name = Optional.ofNullable(metric.getKpi()).orElse(String.valueOf(metric.getId()));
+      String summary =
+          "actual: "
+              + metric.getActualValue()
+              + ", expected: "
+              + metric.getComparator()
+              + " "
+              + metric.getExpectedValue()
+              + ", severity: "
+              + metric.getSeverity();
+      xml.append("  <testcase classname=\"cloudmanager.")
+          .append(escape(action))
+          .append("\" name=\"")
+          .append(escape(name))
+          .append("\">");
+      if (Boolean.TRUE.equals(metric.isPassed())) {
+        xml.append("<system-out>").append(escape(summary)).append("</system-out>");
+      } else if (Boolean.TRUE.equals(metric.isOverride())) {
+        xml.append("<skipped message=\"")
+            .append(escape("overridden, " + summary))
+            .append("\"/>");
+      } else {
+        xml.append("<failure message=\"").append(escape(summary)).append("\"/>");
+      }
+      xml.append("</testcase>\n");
+    }
+    return xml.append("</testsuite>\n").toString();
+  }
+
+  private static String escape(String value) {
+    return Util.xmlEscape(value).replace("\"", "&quot;");
+  }
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uses a cache that may become unavailable, e.g. a {@link FileSharedCache} on an unmounted or full
+ * volume, and falls back to an in-process cache while it fails. After a failure the primary cache
+ * is left alone for a while, so a cache that can't store values doesn't cause a load on every call.
+ * Failures of the loader itself are not the cache's fault and are passed on as they are.
+ */
+public class FallbackSharedCache implements SharedCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FallbackSharedCache.class);
+
+  /** How long to use the fallback before trying the primary cache again. */
+  private static final long RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final SharedCache primary;
+  private final SharedCache fallback = new InProcessSharedCache();
+  // when to try the primary cache again after it failed, 0 while it works
+  private volatile long retryAt;
+
+  public FallbackSharedCache(SharedCache primary) {
+    this.primary = primary;
+  }
+
+  @Override
+  public String get(String key, Loader loader) throws IOException {
+    if (isBackingOff()) {
+      return fallback.get(key, loader);
+    }
+    // a value loaded before the primary cache failed, e.g. to store it, is not loaded twice
+    Value[] loaded = new Value[1];
+    String value;
+    try {
+      value =
+          primary.get(
+              key,
+              () -> {
+                try {
+                  loaded[0] = loader.load();
+                  return loaded[0];
+                } catch (IOException e) {
+                  throw new LoaderException(e);
+                }
+              });
+    } catch (LoaderException e) {
+      throw e.getCause();
+    } catch (IOException e) {
+      onFailure(e);
+      return fallback.get(key, () -> loaded[0] != null ? loaded[0] : loader.load());
+    }
+    onSuccess();
+    return value;
+  }
+
+  @Override
+  public void invalidate(String key, String expected) throws IOException {
+    // the value may have been served by either cache
+    fallback.invalidate(key, expected);
+    if (isBackingOff()) {
+      return;
+    }
+    try {
+      primary.invalidate(key, expected);
+    } catch (IOException e) {
+      onFailure(e);
+      return;
+    }
+    onSuccess();
+  }
+
+  private boolean isBackingOff() {
+    return System.currentTimeMillis() < retryAt;
+  }
+
+  private void onFailure(IOException e) {
+    // only log a change of state, not every failed call
+    if (retryAt == 0) {
+      LOGGER.warn("Shared cache is unavailable, caching on this controller only", e);
+    } else {
+      LOGGER.debug("Shared cache is still unavailable", e);
+    }
+    retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+  }
+
+  private void onSuccess() {
+    if (retryAt != 0) {
+      retryAt = 0;
+      LOGGER.info("Shared cache is available again");
+    }
+  }
+
+  /** Tells the loader's own failures apart from the ones of the primary cache. */
+  private static class LoaderException extends IOException {
+    private LoaderException(IOException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized IOException getCause() {
+      return (IOException) super.getCause();
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import hudson.Util;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache stored in a directory, meant to be a volume shared by several controllers. Each key is a
+ * file holding its expiry and its encrypted value. Loading a key is coordinated with a lock file
+ * that is created exclusively, the other callers wait for the value instead of loading it too. The
+ * lock holds a token unique to its owner, a lock is only ever removed by checking that token, so a
+ * caller whose lock was taken over as stale never releases the new owner's lock.
+ *
+ * <p>Values are encrypted with a key derived from a passphrase all controllers share (the Adobe IO
+ * client secret), so the directory never holds tokens in clear text.
+ */
+public class FileSharedCache implements SharedCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSharedCache.class);
+
+  /** A lock older than this is considered left behind by a crashed controller. */
+  private static final long STALE_LOCK_MILLIS = TimeUnit.SECONDS.toMillis(60);
+  /** How long to wait for another controller to load a value before loading it anyway. */
+  private static final long LOCK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private static final long POLL_MILLIS = 100;
+  private static final int IV_LENGTH = 12;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private final Path dir;
+  private final SecretKeySpec secretKey;
+
+  /** The directory is created on first use, an unavailable volume fails calls, not construction. */
+  public FileSharedCache(Path dir, String passphrase) {
+    this.dir = dir;
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(String.valueOf(passphrase).getBytes(StandardCharsets.UTF_8));
+      this.secretKey = new SecretKeySpec(Arrays.copyOf(digest, 16), "AES");
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not derive shared cache key", e);
+    }
+  }
+
+  @Override
+  public String get(String key, Loader loader) throws IOException {
+    Path entry = entry(key);
+    Value value = read(entry);
+    if (value != null && !value.isExpired()) {
+      return value.getValue();
+    }
+    Path lock = lock(key);
+    String token = acquire(lock, entry);
+    try {
+      // another controller may have loaded it while we waited
+      value = read(entry);
+      if (value == null || value.isExpired()) {
+        value = loader.load();
+        write(entry, value);
+      }
+      return value.getValue();
+    } finally {
+      release(lock, token);
+    }
+  }
+
+  @Override
+  public void invalidate(String key, String expected) throws IOException {
+    Path entry = entry(key);
+    Path lock = lock(key);
+    String token = acquire(lock, null);
+    try {
+      Value value = read(entry);
+      if (value != null && (expected == null || expected.equals(value.getValue()))) {
+        Files.deleteIfExists(entry);
+      }
+    } finally {
+      release(lock, token);
+    }
+  }
+
+  /**
+   * Wait until we own the lock file, or until {@code entry} holds a fresh value.
+   *
+   * @return the token written in the lock, or null if the lock was not acquired.
+   */
+  private String acquire(Path lock, Path entry) throws IOException {
+    Files.createDirectories(dir);
+    String token = UUID.randomUUID().toString();
+    long deadline = System.currentTimeMillis() + LOCK_TIMEOUT_MILLIS;
+    while (true) {
+      try {
+        Files.write(
+            lock,
+            token.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE);
+        return token;
+      } catch (FileAlreadyExistsException e) {
+        // held by someone else
+      }
+      String holder = readToken(lock);
+      if (holder != null && isStale(lock) && deleteIfHeld(lock, holder)) {
+        LOGGER.warn("Removed stale shared cache lock {}", lock);
+        continue;
+      }
+      if (entry != null) {
+        Value value = read(entry);
+        if (value != null && !value.isExpired()) {
+          return null;
+        }
+      }
+      if (System.currentTimeMillis() > deadline) {
+        LOGGER.warn("Timed out waiting for shared cache lock {}, proceeding without it", lock);
+        return null;
+      }
+      try {
+        Thread.sleep(POLL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for " + lock);
+      }
+    }
+  }
+
+  private static void release(Path lock, String token) throws IOException {
+    if (token != null && !deleteIfHeld(lock, token)) {
+      LOGGER.warn("Shared cache lock {} was taken over while held, left to its new owner", lock);
+    }
+  }
+
+  /**
+   * Delete the lock if it still holds {@code token}. The lock is first renamed to a name only this
+   * caller knows, so no other caller can replace it between the check and the deletion; a lock
+   * that turns out to belong to someone else is put back, unless a newer lock was created since.
+   *
+   * @return true if the lock was deleted.
+   */
+  private static boolean deleteIfHeld(Path lock, String token) throws IOException {
+    Path aside = lock.resolveSibling(lock.getFileName() + "." + UUID.randomUUID() + ".release");
+    try {
+      Files.move(lock, aside, StandardCopyOption.ATOMIC_MOVE);
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+    try {
+      if (token.equals(readToken(aside))) {
+        return true;
+      }
+      try {
+        Files.move(aside, lock);
+      } catch (FileAlreadyExistsException e) {
+        LOGGER.debug("Shared cache lock {} was re-created, dropping the previous one", lock);
+      }
+      return false;
+    } finally {
+      Files.deleteIfExists(aside);
+    }
+  }
+
+  /** @return the token of the lock owner, or null if the lock is gone. */
+  private static String readToken(Path lock) throws IOException {
+    try {
+      return new String(Files.readAllBytes(lock), StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  private static boolean isStale(Path lock) {
+    try {
+      long age = System.currentTimeMillis() - Files.getLastModifiedTime(lock).toMillis();
+      return age > STALE_LOCK_MILLIS;
+    } catch (IOException e) {
+      return false; // released in the meantime
+    }
+  }
+
+  /** @return the stored value, or null if missing or unreadable. */
+  private Value read(Path entry) throws IOException {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(entry, StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    if (lines.size() != 2) {
+      return null;
+    }
+    try {
+      return new Value(decrypt(lines.get(1)), Long.parseLong(lines.get(0)));
+    } catch (GeneralSecurityException | IllegalArgumentException e) {
+      // e.g. written with another passphrase, treat it as a miss
+      LOGGER.debug("Ignoring unreadable shared cache entry {}", entry, e);
+      return null;
+    }
+  }
+
+  private void write(Path entry, Value value) throws IOException {
+    String content;
+    try {
+      content = value.getExpiresAt() + "\n" + encrypt(value.getValue()) + "\n";
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Could not encrypt shared cache entry", e);
+    }
+    // write aside and move so readers never see a partial entry
+    Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+    try {
+      Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+      Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private String encrypt(String plain) throws GeneralSecurityException {
+    byte[] iv = new byte[IV_LENGTH];
+    RANDOM.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+    byte[] encrypted = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+    ByteBuffer buffer = ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted);
+    return Base64.getEncoder().encodeToString(buffer.array());
+  }
+
+  private String decrypt(String encoded) throws GeneralSecurityException {
+    byte[] bytes = Base64.getDecoder().decode(encoded);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, bytes, 0, IV_LENGTH));
+    return new String(
+        cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH), StandardCharsets.UTF_8);
+  }
+
+  private Path entry(String key) {
+    return dir.resolve(Util.getDigestOf(key) + ".entry");
+  }
+
+  private Path lock(String key) {
+    return dir.resolve(Util.getDigestOf(key) + ".lock");
+  }
+}
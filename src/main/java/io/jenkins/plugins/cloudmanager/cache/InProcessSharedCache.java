@@ -0,0 +1,37 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/** Default cache, only shared by the callers of this controller. */
+public class InProcessSharedCache implements SharedCache {
+
+  private final ConcurrentMap<String, Value> values = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+  @Override
+  public String get(String key, Loader loader) throws IOException {
+    Value value = values.get(key);
+    if (value != null && !value.isExpired()) {
+      return value.getValue();
+    }
+    synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+      value = values.get(key);
+      if (value == null || value.isExpired()) {
+        value = loader.load();
+        values.put(key, value);
+      }
+      return value.getValue();
+    }
+  }
+
+  @Override
+  public void invalidate(String key, String expected) {
+    if (expected == null) {
+      values.remove(key);
+    } else {
+      values.computeIfPresent(key, (k, v) -> expected.equals(v.getValue()) ? null : v);
+    }
+  }
+}
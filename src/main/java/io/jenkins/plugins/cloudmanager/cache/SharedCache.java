@@ -0,0 +1,61 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import java.io.IOException;
+
+/**
+ * Cache for access tokens and API metadata. A backend shared by several Jenkins controllers lets a
+ * token or a program list be fetched once and reused by all of them. Implementations must make sure
+ * only one caller loads a given key at a time.
+ *
+ * <p>This is not an extension point, the global configuration picks the backend: the in-process
+ * cache, or the file cache when a shared directory is configured.
+ *
+ * @see InProcessSharedCache
+ * @see FileSharedCache
+ * @see FallbackSharedCache
+ */
+public interface SharedCache {
+
+  /**
+   * Get a cached value, loading and storing it when it is missing or expired.
+   *
+   * @param key any string, implementations take care of escaping it.
+   */
+  String get(String key, Loader loader) throws IOException;
+
+  /**
+   * Remove a cached value.
+   *
+   * @param expected only remove the entry if it still holds this value, so a value another caller
+   *     already replaced is kept. null removes any value.
+   */
+  void invalidate(String key, String expected) throws IOException;
+
+  @FunctionalInterface
+  interface Loader {
+    Value load() throws IOException;
+  }
+
+  final class Value {
+    private final String value;
+    private final long expiresAt;
+
+    /** @param expiresAt epoch millis after which the value is not served anymore. */
+    public Value(String value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    public long getExpiresAt() {
+      return expiresAt;
+    }
+
+    public boolean isExpired() {
+      return System.currentTimeMillis() >= expiresAt;
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package io.jenkins.plugins.cloudmanager.client;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
@@ -43,15 +42,11 @@ public abstract class AbstractService<T> {
     }
 
     this.apiKey = config.getApiKey();
-    Gson gson = new GsonBuilder()
-        .registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeConverter())
-        .setPrettyPrinting()
-        .create();
     this.api =
         new Retrofit.Builder()
             .baseUrl(AdobeioConstants.CLOUD_MANAGER_BASE_PATH)
             .addConverterFactory(ScalarsConverterFactory.create())
-            .addConverterFactory(GsonCustomConverterFactory.create(gson))
+            .addConverterFactory(config.getJsonEngine().getConverterFactory())
             .client(
                 new OkHttpClient.Builder()
                     .addInterceptor(new RetryInterceptor())
@@ -67,7 +62,7 @@ public abstract class AbstractService<T> {
   public static class OffsetDateTimeConverter
       implements JsonSerializer<OffsetDateTime>, JsonDeserializer<OffsetDateTime> {
     // Cloud manager uses this format, apparently.
-    private static final DateTimeFormatter FORMATTER =
+    static final DateTimeFormatter FORMATTER =
         new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ").toFormatter();
 
     public JsonElement serialize(
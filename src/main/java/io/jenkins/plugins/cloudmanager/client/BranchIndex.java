@@ -0,0 +1,188 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import io.jenkins.plugins.cloudmanager.AdobeIOException;
+import io.jenkins.plugins.cloudmanager.CloudManagerGlobalConfig;
+import io.jenkins.plugins.cloudmanager.client.CloudManagerExecutor.Lane;
+import io.swagger.client.model.BranchList;
+import io.swagger.client.model.RepositoryBranch;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Response;
+
+/**
+ * In memory index of branch names per repository. Branch names are kept as a sorted array so prefix
+ * lookups are a binary search, no request is made to Cloud Manager once a repository is loaded.
+ * Stale entries keep being served while a refresh runs in the background on the {@link Lane#BULK}
+ * lane. Entries are keyed by organization too, so switching the Adobe IO integration to another
+ * organization never serves the previous one's branches.
+ */
+@Extension
+public class BranchIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BranchIndex.class);
+
+  /** How long a loaded branch list is considered fresh. */
+  private static final long TTL_MILLIS =
+      TimeUnit.MINUTES.toMillis(Long.getLong(BranchIndex.class.getName() + ".ttlMinutes", 10));
+
+  private static final String[] EMPTY = new String[0];
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+  /** @return the singleton instance */
+  public static BranchIndex get() {
+    return ExtensionList.lookupSingleton(BranchIndex.class);
+  }
+
+  /**
+   * All branches of a repository, sorted by name. Only blocks the first time a repository is
+   * requested.
+   */
+  public List<String> getBranches(String programId, String repositoryId, Lane lane)
+      throws IOException {
+    return Collections.unmodifiableList(Arrays.asList(entry(programId, repositoryId, lane).names));
+  }
+
+  /** @return at most {@code limit} branches, sorted by name, starting with {@code prefix}. */
+  public List<String> search(
+      String programId, String repositoryId, String prefix, int limit, Lane lane)
+      throws IOException {
+    String[] names = entry(programId, repositoryId, lane).names;
+    String safePrefix = StringUtils.defaultString(prefix);
+    int index = Arrays.binarySearch(names, safePrefix);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    List<String> matches = new ArrayList<>();
+    for (int i = index; i < names.length && matches.size() < limit; i++) {
+      if (!names[i].startsWith(safePrefix)) {
+        break;
+      }
+      matches.add(names[i]);
+    }
+    return matches;
+  }
+
+  public boolean contains(String programId, String repositoryId, String branch, Lane lane)
+      throws IOException {
+    return Arrays.binarySearch(entry(programId, repositoryId, lane).names, branch) >= 0;
+  }
+
+  /**
+   * Like {@link #contains} but never trusts a stale entry: the branch list is reloaded before
+   * answering when it is stale or does not have the branch. Meant for build time checks, where an
+   * outdated answer would fail or pass the build wrongly.
+   */
+  public boolean containsFresh(String programId, String repositoryId, String branch, Lane lane)
+      throws IOException {
+    if (StringUtils.isAnyBlank(programId, repositoryId)) {
+      return false;
+    }
+    Entry entry = entries.get(key(programId, repositoryId));
+    if (entry == null || entry.isStale() || Arrays.binarySearch(entry.names, branch) < 0) {
+      entry = CloudManagerExecutor.get().call(lane, () -> load(programId, repositoryId));
+    }
+    return Arrays.binarySearch(entry.names, branch) >= 0;
+  }
+
+  private Entry entry(String programId, String repositoryId, Lane lane) throws IOException {
+    if (StringUtils.isAnyBlank(programId, repositoryId)) {
+      return new Entry(EMPTY);
+    }
+    String key = key(programId, repositoryId);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      entry = CloudManagerExecutor.get().call(lane, () -> load(programId, repositoryId));
+    } else if (entry.isStale()) {
+      refreshInBackground(programId, repositoryId);
+    }
+    return entry;
+  }
+
+  private void refreshInBackground(String programId, String repositoryId) {
+    String key = key(programId, repositoryId);
+    if (!refreshing.add(key)) {
+      return; // already on its way
+    }
+    try {
+      CloudManagerExecutor.get()
+          .submit(
+              Lane.BULK,
+              () -> {
+                try {
+                  return load(programId, repositoryId);
+                } finally {
+                  refreshing.remove(key);
+                }
+              });
+    } catch (AdobeIOException e) {
+      // busy, keep serving the stale entry and try again on the next lookup.
+      refreshing.remove(key);
+      LOGGER.debug("Could not schedule branch refresh for {}", key, e);
+    }
+  }
+
+  private Entry load(String programId, String repositoryId) throws IOException {
+    CloudManagerGlobalConfig config = CloudManagerGlobalConfig.get();
+    BranchesService service = new BranchesService(config);
+    Response<BranchList> response = service.getBranches(programId, repositoryId).execute();
+    if (!response.isSuccessful()) {
+      throw new AdobeIOException(
+          "Request to get branches was not successful. "
+              + "Response code: "
+              + response.code()
+              + " Raw Response: "
+              + response.toString());
+    }
+    String[] names =
+        Optional.ofNullable(response.body().getEmbedded())
+            .map(embedded -> embedded.getBranches())
+            .orElse(Collections.emptyList())
+            .stream()
+            .map(RepositoryBranch::getName)
+            .filter(Objects::nonNull)
+            .sorted()
+            .distinct()
+            .toArray(String[]::new);
+    Entry entry = new Entry(names);
+    entries.put(key(config, programId, repositoryId), entry);
+    return entry;
+  }
+
+  private static String key(String programId, String repositoryId) {
+    return key(CloudManagerGlobalConfig.get(), programId, repositoryId);
+  }
+
+  private static String key(
+      CloudManagerGlobalConfig config, String programId, String repositoryId) {
+    return config.getOrganizationID() + "/" + programId + "/" + repositoryId;
+  }
+
+  private static final class Entry {
+    private final String[] names;
+    private final long loadedAt = System.currentTimeMillis();
+
+    private Entry(String[] names) {
+      this.names = names;
+    }
+
+    private boolean isStale() {
+      return System.currentTimeMillis() - loadedAt > TTL_MILLIS;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import io.jenkins.plugins.cloudmanager.AdobeioConfig;
+import io.swagger.client.api.BranchesApi;
+import io.swagger.client.model.BranchList;
+import retrofit2.Call;
+
+public class BranchesService extends AbstractService<BranchesApi> {
+
+  public BranchesService(AdobeioConfig config) {
+    super(config, BranchesApi.class);
+  }
+
+  public Call<BranchList> getBranches(String programId, String repositoryId) {
+    return api.getBranches(programId, repositoryId, organizationId, authorization, getApiKey());
+  }
+}
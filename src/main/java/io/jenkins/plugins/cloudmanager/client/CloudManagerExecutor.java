@@ -0,0 +1,189 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.Terminator;
+import hudson.model.PeriodicWork;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.cloudmanager.AdobeIOException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Bounded worker pool that all plugin originated Cloud Manager traffic runs on. Work is split in
+ * lanes so that build critical requests never queue behind UI or history paging requests. Each
+ * lane has a fixed number of threads and a bounded queue, when the queue is full the task is
+ * rejected right away instead of piling up on the caller's thread.
+ *
+ * <p>Lane sizes can be tuned with system properties, e.g. {@code
+ * -Dio.jenkins.plugins.cloudmanager.client.CloudManagerExecutor.CRITICAL.threads=8}
+ */
+@Extension
+public class CloudManagerExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CloudManagerExecutor.class);
+  private static final String PROPERTY_PREFIX = CloudManagerExecutor.class.getName() + ".";
+
+  /** How long a caller waits for a task to complete before giving up. */
+  private static final long TIMEOUT_SECONDS =
+      Long.getLong(PROPERTY_PREFIX + "timeoutSeconds", 120);
+
+  public enum Lane {
+    /** Pipeline triggers and execution status checks. */
+    CRITICAL(4, 32),
+    /** Dropdown fills, autocomplete refreshes and history/metrics paging. */
+    BULK(2, 16);
+
+    private final int threads, queueSize;
+
+    Lane(int threads, int queueSize) {
+      this.threads = Integer.getInteger(PROPERTY_PREFIX + name() + ".threads", threads);
+      this.queueSize = Integer.getInteger(PROPERTY_PREFIX + name() + ".queueSize", queueSize);
+    }
+  }
+
+  private final Map<Lane, ThreadPoolExecutor> lanes = new EnumMap<>(Lane.class);
+
+  public CloudManagerExecutor() {
+    for (Lane lane : Lane.values()) {
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              lane.threads,
+              lane.threads,
+              60L,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(lane.queueSize),
+              new NamingThreadFactory(new DaemonThreadFactory(), "CloudManager-" + lane),
+              new ThreadPoolExecutor.AbortPolicy());
+      executor.allowCoreThreadTimeOut(true);
+      lanes.put(lane, executor);
+    }
+  }
+
+  /** @return the singleton instance */
+  public static CloudManagerExecutor get() {
+    return ExtensionList.lookupSingleton(CloudManagerExecutor.class);
+  }
+
+  /**
+   * Queue a task on the given lane.
+   *
+   * @throws AdobeIOException if the lane is saturated and can't accept more work.
+   */
+  public <T> Future<T> submit(Lane lane, Callable<T> task) throws AdobeIOException {
+    ThreadPoolExecutor executor = lanes.get(lane);
+    try {
+      return executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn(
+          "Rejected Cloud Manager request on lane {}, queue depth: {}, active threads: {}",
+          lane,
+          executor.getQueue().size(),
+          executor.getActiveCount());
+      throw new AdobeIOException(
+          "Too many concurrent Cloud Manager requests (" + lane + "), try again later.", e);
+    }
+  }
+
+  /** Execute a retrofit call on the given lane and wait for its response. */
+  public <T> Response<T> execute(Lane lane, Call<T> call) throws IOException {
+    return await(submit(lane, call::execute));
+  }
+
+  /** Run a task on the given lane and wait for its result. */
+  public <T> T call(Lane lane, Callable<T> task) throws IOException {
+    return await(submit(lane, task));
+  }
+
+  /** @return number of tasks waiting for a thread on the given lane. */
+  public int getQueueDepth(Lane lane) {
+    return lanes.get(lane).getQueue().size();
+  }
+
+  /** @return number of threads currently running a task on the given lane. */
+  public int getActiveCount(Lane lane) {
+    return lanes.get(lane).getActiveCount();
+  }
+
+  private static <T> T await(Future<T> future) throws IOException {
+    try {
+      return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for Cloud Manager response");
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new AdobeIOException(
+          "Cloud Manager did not respond within " + TIMEOUT_SECONDS + " seconds", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new AdobeIOException("Cloud Manager request failed", cause);
+    }
+  }
+
+  /** @return the number of tasks a lane can queue before rejecting. */
+  public int getQueueCapacity(Lane lane) {
+    ThreadPoolExecutor executor = lanes.get(lane);
+    return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+  }
+
+  @Terminator
+  public static void shutdown() {
+    get().lanes.values().forEach(ThreadPoolExecutor::shutdownNow);
+  }
+
+  /** Reports lane usage every minute, and warns when a lane is close to rejecting work. */
+  @Extension
+  public static class QueueDepthReporter extends PeriodicWork {
+
+    @Override
+    public long getRecurrencePeriod() {
+      return MIN;
+    }
+
+    @Override
+    protected void doRun() {
+      CloudManagerExecutor executor = get();
+      for (Lane lane : Lane.values()) {
+        int depth = executor.getQueueDepth(lane);
+        int capacity = executor.getQueueCapacity(lane);
+        if (capacity > 0 && depth * 4 >= capacity * 3) {
+          LOGGER.warn(
+              "Cloud Manager lane {} is almost full, queue depth: {}/{}, active threads: {}",
+              lane,
+              depth,
+              capacity,
+              executor.getActiveCount(lane));
+        } else {
+          LOGGER.debug(
+              "Cloud Manager lane {} queue depth: {}/{}, active threads: {}",
+              lane,
+              depth,
+              capacity,
+              executor.getActiveCount(lane));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import io.jenkins.plugins.cloudmanager.client.AbstractService.GsonCustomConverterFactory;
+import io.jenkins.plugins.cloudmanager.client.AbstractService.OffsetDateTimeConverter;
+import java.io.IOException;
+import org.threeten.bp.OffsetDateTime;
+import retrofit2.Converter;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+/**
+ * JSON engines available to (de)serialize Cloud Manager API payloads. The converter of each engine
+ * is built once and shared by all services.
+ */
+public enum JsonEngine {
+  /** Gson with reflection based adapters, the original engine. */
+  GSON("Gson") {
+    @Override
+    Converter.Factory createConverterFactory() {
+      return GsonCustomConverterFactory.create(
+          new GsonBuilder()
+              .registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeConverter())
+              .create());
+    }
+  },
+
+  /**
+   * Jackson with the afterburner module, which generates bytecode accessors for the model setters
+   * and getters instead of calling them reflectively.
+   */
+  JACKSON("Jackson (Afterburner)") {
+    @Override
+    Converter.Factory createConverterFactory() {
+      SimpleModule dates =
+          new SimpleModule()
+              .addSerializer(OffsetDateTime.class, new OffsetDateTimeSerializer())
+              .addDeserializer(OffsetDateTime.class, new OffsetDateTimeDeserializer());
+      ObjectMapper mapper =
+          new ObjectMapper()
+              .setAnnotationIntrospector(new GsonNamesIntrospector())
+              .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+              // swagger enums carry their json value in toString/fromValue
+              .enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING)
+              .enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+              // like the Gson enum adapters, a value added to the API reads as null
+              .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
+              .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+              .registerModule(dates)
+              .registerModule(new AfterburnerModule());
+      return JacksonConverterFactory.create(mapper);
+    }
+  };
+
+  private final String displayName;
+  private volatile Converter.Factory converterFactory;
+
+  JsonEngine(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  public Converter.Factory getConverterFactory() {
+    Converter.Factory factory = converterFactory;
+    if (factory == null) {
+      synchronized (this) {
+        factory = converterFactory;
+        if (factory == null) {
+          factory = converterFactory = createConverterFactory();
+        }
+      }
+    }
+    return factory;
+  }
+
+  abstract Converter.Factory createConverterFactory();
+
+  /**
+   * The swagger generated models are only annotated for Gson, use the {@link SerializedName} of
+   * fields as the Jackson property name.
+   */
+  static class GsonNamesIntrospector extends JacksonAnnotationIntrospector {
+
+    @Override
+    public PropertyName findNameForSerialization(Annotated a) {
+      PropertyName name = findGsonName(a);
+      return name != null ? name : super.findNameForSerialization(a);
+    }
+
+    @Override
+    public PropertyName findNameForDeserialization(Annotated a) {
+      PropertyName name = findGsonName(a);
+      return name != null ? name : super.findNameForDeserialization(a);
+    }
+
+    private static PropertyName findGsonName(Annotated a) {
+      if (a instanceof AnnotatedField) {
+        SerializedName serializedName = a.getAnnotation(SerializedName.class);
+        if (serializedName != null) {
+          return PropertyName.construct(serializedName.value());
+        }
+      }
+      return null;
+    }
+  }
+
+  static class OffsetDateTimeSerializer extends JsonSerializer<OffsetDateTime> {
+    @Override
+    public void serialize(OffsetDateTime value, JsonGenerator gen, SerializerProvider serializers)
+        throws IOException {
+      gen.writeString(OffsetDateTimeConverter.FORMATTER.format(value));
+    }
+  }
+
+  static class OffsetDateTimeDeserializer extends JsonDeserializer<OffsetDateTime> {
+    @Override
+    public OffsetDateTime deserialize(JsonParser p, DeserializationContext ctxt)
+        throws IOException {
+      return OffsetDateTimeConverter.FORMATTER.parse(p.getValueAsString(), OffsetDateTime.FROM);
+    }
+  }
+}
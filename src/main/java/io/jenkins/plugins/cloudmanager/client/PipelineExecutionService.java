@@ -2,6 +2,8 @@ package io.jenkins.plugins.cloudmanager.client;
 
 import io.jenkins.plugins.cloudmanager.AdobeioConfig;
 import io.swagger.client.api.PipelineExecutionApi;
+import io.swagger.client.model.PipelineExecution;
+import io.swagger.client.model.PipelineStepMetrics;
 import retrofit2.Call;
 
 public class PipelineExecutionService extends AbstractService<PipelineExecutionApi> {
@@ -14,4 +16,28 @@ public class PipelineExecutionService extends AbstractService<PipelineExecutionA
     return api.startPipeline(
         programId, pipelineId, organizationId, authorization, getApiKey(), "application/json");
   }
+
+  public Call<PipelineExecution> getCurrentExecution(String programId, String pipelineId) {
+    return api.getCurrentExecution(
+        programId, pipelineId, organizationId, authorization, getApiKey());
+  }
+
+  public Call<PipelineExecution> getExecution(
+      String programId, String pipelineId, String executionId) {
+    return api.getExecution(
+        programId, pipelineId, executionId, organizationId, authorization, getApiKey());
+  }
+
+  public Call<PipelineStepMetrics> getStepMetrics(
+      String programId, String pipelineId, String executionId, String phaseId, String stepId) {
+    return api.stepMetric(
+        programId,
+        pipelineId,
+        executionId,
+        phaseId,
+        stepId,
+        organizationId,
+        authorization,
+        getApiKey());
+  }
 }
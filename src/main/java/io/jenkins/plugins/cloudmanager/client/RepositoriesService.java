@@ -0,0 +1,38 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import io.jenkins.plugins.cloudmanager.AdobeioConfig;
+import io.swagger.client.api.RepositoriesApi;
+import io.swagger.client.model.HalLink;
+import io.swagger.client.model.Repository;
+import io.swagger.client.model.RepositoryList;
+import java.util.Optional;
+import org.apache.commons.lang3.StringUtils;
+import retrofit2.Call;
+
+public class RepositoriesService extends AbstractService<RepositoriesApi> {
+
+  public RepositoriesService(AdobeioConfig config) {
+    super(config, RepositoriesApi.class);
+  }
+
+  public Call<Repository> getRepository(String programId, String repositoryId) {
+    return api.getRepository(programId, repositoryId, organizationId, authorization, getApiKey());
+  }
+
+  public Call<RepositoryList> getRepositories(String programId) {
+    return api.getRepositories(programId, organizationId, authorization, getApiKey());
+  }
+
+  /**
+   * The repository representation does not carry its id, it is the last segment of its self link.
+   *
+   * @return the repository id, or null if the repository has no self link.
+   */
+  public static String getRepositoryId(Repository repository) {
+    return Optional.ofNullable(repository.getLinks())
+        .map(links -> links.getSelf())
+        .map(HalLink::getHref)
+        .map(href -> StringUtils.substringAfterLast(StringUtils.removeEnd(href, "/"), "/"))
+        .orElse(null);
+  }
+}
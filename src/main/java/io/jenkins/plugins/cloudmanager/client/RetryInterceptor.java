@@ -28,7 +28,10 @@ public class RetryInterceptor implements Interceptor {
               + "Attempting to get a new token and retry. ");
       CloudManagerGlobalConfig config =
           ExtensionList.lookupSingleton(CloudManagerGlobalConfig.class);
-      String newAccessToken = config.getAccessToken();
+      String rejectedToken =
+          StringUtils.removeStart(
+              request.header(AdobeioConstants.AUTHORIZATION), AdobeioConstants.BEARER);
+      String newAccessToken = config.refreshAccessToken(rejectedToken);
       if (StringUtils.isNoneBlank(newAccessToken)) {
         logger.info("Got a new token! Retrying request.");
       } else {
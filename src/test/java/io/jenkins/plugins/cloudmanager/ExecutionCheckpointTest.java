@@ -0,0 +1,62 @@
+package io.jenkins.plugins.cloudmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ExecutionCheckpointTest {
+
+  @Test
+  public void roundTripsThroughLine() {
+    ExecutionCheckpoint checkpoint =
+        new ExecutionCheckpoint("1012", "14", "29", "RUNNING", "5", "RUNNING", 3, "job/build#7");
+    assertEquals("1012\t14\t29\tRUNNING\t5\tRUNNING\t3\tjob/build#7", checkpoint.toLine());
+    assertEquals(checkpoint.toLine(), ExecutionCheckpoint.fromLine(checkpoint.toLine()).toLine());
+  }
+
+  @Test
+  public void roundTripsMissingValues() {
+    ExecutionCheckpoint checkpoint =
+        new ExecutionCheckpoint("1012", "14", "29", null, null, null, 0, null);
+    assertEquals("1012\t14\t29\t-\t-\t-\t0\t-", checkpoint.toLine());
+    ExecutionCheckpoint read = ExecutionCheckpoint.fromLine(checkpoint.toLine());
+    assertNull(read.getStatus());
+    assertNull(read.getStepId());
+    assertNull(read.getStepStatus());
+    assertNull(read.getOwner());
+  }
+
+  @Test
+  public void readsLinesWrittenBeforeTheOwnerColumn() {
+    ExecutionCheckpoint read = ExecutionCheckpoint.fromLine("1012\t14\t29\tRUNNING\t5\t-\t2");
+    assertEquals("1012", read.getExecutionId());
+    assertEquals("14", read.getProgramId());
+    assertEquals("29", read.getPipelineId());
+    assertEquals("RUNNING", read.getStatus());
+    assertEquals("5", read.getStepId());
+    assertNull(read.getStepStatus());
+    assertEquals(2, read.getLogOffset());
+    assertNull(read.getOwner());
+  }
+
+  @Test
+  public void rejectsMalformedLines() {
+    assertNull(ExecutionCheckpoint.fromLine(""));
+    assertNull(ExecutionCheckpoint.fromLine("1012\t14\t29\tRUNN"));
+    assertNull(ExecutionCheckpoint.fromLine("1012\t14\t29\tRUNNING\t5\t-\tx\towner"));
+    assertNull(ExecutionCheckpoint.fromLine("1012\t14\t29\tRUNNING\t5\t-\t2\towner\textra"));
+  }
+
+  @Test
+  public void finalStatusesAreDone() {
+    ExecutionCheckpoint running =
+        new ExecutionCheckpoint("1012", "14", "29", "RUNNING", null, null, 0, null);
+    assertFalse(running.isDone());
+    assertTrue(running.withStatus("FINISHED").isDone());
+    assertTrue(running.withStatus(ExecutionCheckpoint.ABANDONED).isDone());
+    assertEquals("RUNNING", running.getStatus());
+  }
+}
@@ -0,0 +1,113 @@
+package io.jenkins.plugins.cloudmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExecutionTrackerTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File journal;
+
+  @Before
+  public void setUp() {
+    journal = new File(folder.getRoot(), "executions.log");
+  }
+
+  @Test
+  public void latestCheckpointWinsAfterRestart() throws IOException {
+    ExecutionTracker tracker = new ExecutionTracker(journal);
+    tracker.checkpoint(running("1012", 0));
+    tracker.checkpoint(running("1012", 2));
+    tracker.checkpoint(running("1013", 1));
+
+    List<ExecutionCheckpoint> recovered = new ExecutionTracker(journal).findInFlight("14", "29");
+    assertEquals(2, recovered.size());
+    assertEquals("1012", recovered.get(0).getExecutionId());
+    assertEquals(2, recovered.get(0).getLogOffset());
+    assertEquals("1013", recovered.get(1).getExecutionId());
+  }
+
+  @Test
+  public void endedExecutionsAreDropped() throws IOException {
+    ExecutionTracker tracker = new ExecutionTracker(journal);
+    tracker.checkpoint(running("1012", 0));
+    tracker.checkpoint(running("1013", 0));
+    tracker.checkpoint(running("1012", 4).withStatus("FINISHED"));
+    tracker.abandon(running("1013", 0));
+
+    assertTrue(tracker.findInFlight("14", "29").isEmpty());
+    assertTrue(new ExecutionTracker(journal).findInFlight("14", "29").isEmpty());
+  }
+
+  @Test
+  public void onlyFindsExecutionsOfThePipeline() throws IOException {
+    ExecutionTracker tracker = new ExecutionTracker(journal);
+    tracker.checkpoint(running("1012", 0));
+    tracker.checkpoint(new ExecutionCheckpoint("2001", "14", "30", "RUNNING", null, null, 0, null));
+
+    assertEquals(1, tracker.findInFlight("14", "29").size());
+    assertEquals(1, tracker.findInFlight("14", "30").size());
+    assertTrue(tracker.findInFlight("15", "29").isEmpty());
+  }
+
+  @Test
+  public void skipsTornLines() throws IOException {
+    new ExecutionTracker(journal).checkpoint(running("1012", 1));
+    Files.write(
+        journal.toPath(),
+        "1013\t14\t29\tRUNN".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+
+    List<ExecutionCheckpoint> recovered = new ExecutionTracker(journal).findInFlight("14", "29");
+    assertEquals(1, recovered.size());
+    assertEquals("1012", recovered.get(0).getExecutionId());
+  }
+
+  @Test
+  public void compactsOnLoad() throws IOException {
+    ExecutionTracker tracker = new ExecutionTracker(journal);
+    for (int i = 0; i < 10; i++) {
+      tracker.checkpoint(running("1012", i));
+    }
+    tracker.checkpoint(running("1013", 0));
+    assertEquals(11, lines().size());
+
+    new ExecutionTracker(journal).findInFlight("14", "29");
+    assertEquals(2, lines().size());
+    assertEquals(running("1012", 9).toLine(), lines().get(0));
+  }
+
+  @Test
+  public void compactsOnceTheJournalGrows() throws IOException {
+    ExecutionTracker tracker = new ExecutionTracker(journal);
+    for (int i = 0; i < 1000; i++) {
+      tracker.checkpoint(running("1012", i));
+    }
+    assertTrue("journal was compacted: " + lines().size(), lines().size() <= 512);
+
+    List<ExecutionCheckpoint> recovered = new ExecutionTracker(journal).findInFlight("14", "29");
+    assertEquals(1, recovered.size());
+    assertEquals(999, recovered.get(0).getLogOffset());
+  }
+
+  private List<String> lines() throws IOException {
+    return Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8);
+  }
+
+  private static ExecutionCheckpoint running(String executionId, int logOffset) {
+    return new ExecutionCheckpoint(
+        executionId, "14", "29", "RUNNING", "5", "RUNNING", logOffset, "job/build#7");
+  }
+}
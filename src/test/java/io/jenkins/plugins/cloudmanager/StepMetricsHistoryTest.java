@@ -0,0 +1,117 @@
+package io.jenkins.plugins.cloudmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.jenkins.plugins.cloudmanager.StepMetricsHistory.Point;
+import io.swagger.client.model.Metric;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StepMetricsHistoryTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setUp() {
+    file = new File(folder.getRoot(), "kpi.tsv");
+  }
+
+  @Test
+  public void readsFileShorterThanAChunk() throws IOException {
+    write("1\t10\ttrue", "2\t20\ttrue", "3\t30\tfalse");
+    assertEquals(
+        Arrays.asList("2\t20\ttrue", "3\t30\tfalse"), StepMetricsHistory.readLastLines(file, 2));
+  }
+
+  @Test
+  public void readsFewerLinesThanLimit() throws IOException {
+    write("1\t10\ttrue", "2\t20\ttrue");
+    assertEquals(
+        Arrays.asList("1\t10\ttrue", "2\t20\ttrue"), StepMetricsHistory.readLastLines(file, 100));
+  }
+
+  @Test
+  public void readsEmptyFile() throws IOException {
+    write();
+    assertTrue(StepMetricsHistory.readLastLines(file, 10).isEmpty());
+  }
+
+  @Test
+  public void readsLineCrossingChunkBoundary() throws IOException {
+    // the chunk boundary falls in the middle of the first line
+    String first = StringUtils.repeat('a', StepMetricsHistory.CHUNK_SIZE - 50);
+    String second = StringUtils.repeat('b', 99);
+    write("0\t0\ttrue", first, second);
+    assertEquals(Arrays.asList(first, second), StepMetricsHistory.readLastLines(file, 2));
+    assertEquals(Collections.singletonList(second), StepMetricsHistory.readLastLines(file, 1));
+  }
+
+  @Test
+  public void readsLinesEndingOnChunkBoundary() throws IOException {
+    // the last chunk starts right after the newline of the first line
+    String first = "first";
+    String second = StringUtils.repeat('b', StepMetricsHistory.CHUNK_SIZE - 1);
+    write(first, second);
+    assertEquals(Collections.singletonList(second), StepMetricsHistory.readLastLines(file, 1));
+    assertEquals(Arrays.asList(first, second), StepMetricsHistory.readLastLines(file, 2));
+  }
+
+  @Test
+  public void readsTailOfManyChunks() throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (int i = 1; i <= 2000; i++) {
+      lines.add(i + "\t" + (i * 7.5) + "\t" + (i % 3 == 0));
+    }
+    write(lines.toArray(new String[0]));
+    for (int limit : new int[] {1, 100, 1999, 2000, 5000}) {
+      assertEquals(
+          "limit " + limit,
+          lines.subList(Math.max(0, lines.size() - limit), lines.size()),
+          StepMetricsHistory.readLastLines(file, limit));
+    }
+  }
+
+  @Test
+  public void appendsAndReadsPoints() throws IOException {
+    StepMetricsHistory history = new StepMetricsHistory(new File(folder.getRoot(), "metrics"));
+    assertFalse(history.exists());
+    for (int build = 1; build <= 12; build++) {
+      history.append(build, new Metric().kpi("coverage").actualValue(build + ".5").passed(true));
+    }
+    history.append(13, new Metric().kpi("coverage").actualValue("n/a").passed(false));
+    history.append(13, new Metric().kpi("security rating").actualValue("2").passed(false));
+
+    assertEquals(Arrays.asList("coverage", "security_rating"), history.getKpis());
+    List<Point> points = history.getPoints("coverage", 3);
+    assertEquals(3, points.size());
+    assertEquals(10, points.get(0).getBuildNumber());
+    assertEquals(12, points.get(2).getBuildNumber());
+    assertEquals(12.5, points.get(2).getValue(), 0);
+    assertTrue(points.get(2).isPassed());
+    assertFalse(history.getPoints("security rating", 10).get(0).isPassed());
+    assertTrue(history.getPoints("unknown", 10).isEmpty());
+  }
+
+  private void write(String... lines) throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (String line : lines) {
+      content.append(line).append('\n');
+    }
+    Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,89 @@
+package io.jenkins.plugins.cloudmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.swagger.client.model.Metric;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+public class StepMetricsRecorderTest {
+
+  @Test
+  public void writesOneTestCasePerMetric() throws Exception {
+    Metric passed =
+        metric("coverage", "82.5", "50").passed(true).severity(Metric.SeverityEnum.CRITICAL);
+    Metric failed = metric("sqale_rating", "3", "1").passed(false);
+    Metric overridden = metric("open_bugs", "4", "0").passed(false).override(true);
+
+    String xml =
+        StepMetricsRecorder.toJUnit("codeQuality", Arrays.asList(passed, failed, overridden));
+    Document report = parse(xml);
+
+    Element suite = report.getDocumentElement();
+    assertEquals("testsuite", suite.getTagName());
+    assertEquals("cloudmanager.codeQuality", suite.getAttribute("name"));
+    assertEquals("3", suite.getAttribute("tests"));
+    assertEquals("1", suite.getAttribute("failures"));
+
+    NodeList cases = suite.getElementsByTagName("testcase");
+    assertEquals(3, cases.getLength());
+    Element passedCase = (Element) cases.item(0);
+    assertEquals("cloudmanager.codeQuality", passedCase.getAttribute("classname"));
+    assertEquals("coverage", passedCase.getAttribute("name"));
+    assertEquals(
+        "actual: 82.5, expected: GTE 50, severity: critical",
+        passedCase.getElementsByTagName("system-out").item(0).getTextContent());
+
+    Element failure = (Element) ((Element) cases.item(1)).getElementsByTagName("failure").item(0);
+    assertEquals("actual: 3, expected: GTE 1, severity: null", failure.getAttribute("message"));
+
+    Element skipped = (Element) ((Element) cases.item(2)).getElementsByTagName("skipped").item(0);
+    assertTrue(skipped.getAttribute("message").startsWith("overridden, actual: 4"));
+  }
+
+  @Test
+  public void escapesNamesAndValues() throws Exception {
+    Metric metric = metric("a<b & \"c\">", "<1>", "\"2\"").passed(false);
+
+    String xml = StepMetricsRecorder.toJUnit("load\"Test", Collections.singletonList(metric));
+    Document report = parse(xml);
+
+    Element testCase = (Element) report.getElementsByTagName("testcase").item(0);
+    assertEquals("cloudmanager.load\"Test", testCase.getAttribute("classname"));
+    assertEquals("a<b & \"c\">", testCase.getAttribute("name"));
+    Element failure = (Element) testCase.getElementsByTagName("failure").item(0);
+    assertEquals(
+        "actual: <1>, expected: GTE \"2\", severity: null", failure.getAttribute("message"));
+  }
+
+  @Test
+  public void fallsBackToMetricId() throws Exception {
+    Metric metric = new Metric().id("42").actualValue("1").passed(true);
+    Document report =
+        parse(StepMetricsRecorder.toJUnit("securityTest", Collections.singletonList(metric)));
+    Element testCase = (Element) report.getElementsByTagName("testcase").item(0);
+    assertEquals("42", testCase.getAttribute("name"));
+  }
+
+  private static Metric metric(String kpi, String actual, String expected) {
+    return new Metric()
+        .kpi(kpi)
+        .actualValue(actual)
+        .expectedValue(expected)
+        .comparator(Metric.ComparatorEnum.GTE);
+  }
+
+  private static Document parse(String xml) throws Exception {
+    return DocumentBuilderFactory.newInstance()
+        .newDocumentBuilder()
+        .parse(new InputSource(new StringReader(xml)));
+  }
+}
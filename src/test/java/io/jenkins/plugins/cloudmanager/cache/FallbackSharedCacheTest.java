@@ -0,0 +1,98 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import io.jenkins.plugins.cloudmanager.cache.SharedCache.Value;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FallbackSharedCacheTest {
+
+  private static final String KEY = "token:client-id";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  public void cachesLocallyWhileDirectoryIsUnusable() throws IOException {
+    // a file where the volume should be mounted, the directory can't be created
+    Path dir = folder.newFile("volume").toPath().resolve("cache");
+    SharedCache cache = new FallbackSharedCache(new FileSharedCache(dir, "client-secret"));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void usesDirectoryWhenAvailable() throws IOException {
+    Path dir = folder.getRoot().toPath().resolve("cache");
+    SharedCache cache = new FallbackSharedCache(new FileSharedCache(dir, "client-secret"));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", new FileSharedCache(dir, "client-secret").get(KEY, this::load));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void passesLoaderFailuresOn() {
+    IOException denied = new IOException("denied");
+    SharedCache cache = new FallbackSharedCache(new InProcessSharedCache());
+    try {
+      cache.get(
+          KEY,
+          () -> {
+            loads.incrementAndGet();
+            throw denied;
+          });
+      fail("loader failure was swallowed");
+    } catch (IOException e) {
+      assertSame(denied, e);
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void doesNotLoadTwiceWhenStoringFails() throws IOException {
+    SharedCache cache = new FallbackSharedCache(new FailingToStore());
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void invalidatesLocalValues() throws IOException {
+    SharedCache cache = new FallbackSharedCache(new FailingToStore());
+    assertEquals("value-1", cache.get(KEY, this::load));
+    cache.invalidate(KEY, "value-0");
+    assertEquals("value-1", cache.get(KEY, this::load));
+    cache.invalidate(KEY, "value-1");
+    assertEquals("value-2", cache.get(KEY, this::load));
+  }
+
+  private Value load() {
+    return new Value(
+        "value-" + loads.incrementAndGet(),
+        System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5));
+  }
+
+  /** Loads values but can't store them, like a cache on a full disk. */
+  private static class FailingToStore implements SharedCache {
+    @Override
+    public String get(String key, Loader loader) throws IOException {
+      loader.load();
+      throw new IOException("No space left on device");
+    }
+
+    @Override
+    public void invalidate(String key, String expected) throws IOException {
+      throw new IOException("No space left on device");
+    }
+  }
+}
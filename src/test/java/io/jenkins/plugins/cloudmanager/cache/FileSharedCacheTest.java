@@ -0,0 +1,139 @@
+package io.jenkins.plugins.cloudmanager.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import hudson.Util;
+import io.jenkins.plugins.cloudmanager.cache.SharedCache.Value;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSharedCacheTest {
+
+  private static final String KEY = "token:client-id";
+  private static final String PASSPHRASE = "client-secret";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path dir;
+  private FileSharedCache cache;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void setUp() throws IOException {
+    dir = folder.getRoot().toPath();
+    cache = new FileSharedCache(dir, PASSPHRASE);
+  }
+
+  @Test
+  public void loadsOnceForAllControllers() throws IOException {
+    FileSharedCache other = new FileSharedCache(dir, PASSPHRASE);
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", other.get(KEY, this::load));
+    assertEquals(1, loads.get());
+    assertFalse("lock is released", Files.exists(lock()));
+  }
+
+  @Test
+  public void concurrentCallersLoadOnce() throws Exception {
+    FileSharedCache other = new FileSharedCache(dir, PASSPHRASE);
+    SharedCache.Loader slowLoader =
+        () -> {
+          try {
+            Thread.sleep(300);
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          return load();
+        };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(() -> cache.get(KEY, slowLoader));
+      Future<String> second = executor.submit(() -> other.get(KEY, slowLoader));
+      assertEquals("value-1", first.get(10, TimeUnit.SECONDS));
+      assertEquals("value-1", second.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void reloadsExpiredValue() throws IOException {
+    assertEquals("expired", cache.get(KEY, () -> new Value("expired", 0)));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void invalidateKeepsReplacedValue() throws IOException {
+    cache.get(KEY, this::load);
+    cache.invalidate(KEY, "value-0");
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void invalidateRemovesExpectedValue() throws IOException {
+    cache.get(KEY, this::load);
+    cache.invalidate(KEY, "value-1");
+    assertEquals("value-2", cache.get(KEY, this::load));
+    cache.invalidate(KEY, null);
+    assertEquals("value-3", cache.get(KEY, this::load));
+    assertFalse("lock is released", Files.exists(lock()));
+  }
+
+  @Test
+  public void entryOfAnotherPassphraseIsAMiss() throws IOException {
+    cache.get(KEY, this::load);
+    FileSharedCache other = new FileSharedCache(dir, "another-secret");
+    assertEquals("value-2", other.get(KEY, this::load));
+  }
+
+  @Test
+  public void takesOverStaleLock() throws IOException {
+    Files.write(lock(), "crashed-controller".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(
+        lock(), FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(2)));
+    assertEquals("value-1", cache.get(KEY, this::load));
+    assertFalse("lock is released", Files.exists(lock()));
+  }
+
+  @Test
+  public void keepsLockTakenOverByAnotherOwner() throws IOException {
+    String value =
+        cache.get(
+            KEY,
+            () -> {
+              // another controller considered our lock stale and now holds it
+              Files.write(lock(), "new-owner".getBytes(StandardCharsets.UTF_8));
+              return load();
+            });
+    assertEquals("value-1", value);
+    assertEquals("new-owner", new String(Files.readAllBytes(lock()), StandardCharsets.UTF_8));
+  }
+
+  private Value load() {
+    return new Value(
+        "value-" + loads.incrementAndGet(),
+        System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5));
+  }
+
+  private Path lock() {
+    return dir.resolve(Util.getDigestOf(KEY) + ".lock");
+  }
+}
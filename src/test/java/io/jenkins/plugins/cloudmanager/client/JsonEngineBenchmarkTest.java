@@ -0,0 +1,61 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import static org.junit.Assume.assumeTrue;
+
+import io.swagger.client.model.PipelineExecution;
+import io.swagger.client.model.PipelineList;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import org.junit.Test;
+
+/**
+ * Throughput and allocation of each engine on the payloads the plugin reads most. Only runs when
+ * asked for, e.g. {@code mvn test -Dtest=JsonEngineBenchmarkTest -Dcloudmanager.benchmark=true}.
+ */
+public class JsonEngineBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int ITERATIONS = 50_000;
+
+  @Test
+  public void compareEngines() throws IOException {
+    assumeTrue(Boolean.getBoolean("cloudmanager.benchmark"));
+    String list = JsonEngineTest.resource("pipeline-list.json");
+    String execution = JsonEngineTest.resource("pipeline-execution.json");
+    for (JsonEngine engine : JsonEngine.values()) {
+      run(engine, PipelineList.class, list);
+      run(engine, PipelineExecution.class, execution);
+    }
+  }
+
+  private static void run(JsonEngine engine, Class<?> type, String json) throws IOException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      JsonEngineTest.read(engine, type, json);
+    }
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      JsonEngineTest.read(engine, type, json);
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = allocatedBytes() - allocatedBefore;
+    System.out.printf(
+        "%-8s %-18s %,12.0f ops/s %,10d bytes/op%n",
+        engine.name(),
+        type.getSimpleName(),
+        ITERATIONS * 1e9 / elapsed,
+        allocated / ITERATIONS);
+  }
+
+  /** @return the bytes allocated so far by the current thread, or 0 if the JVM can't tell. */
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported()) {
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.cloudmanager.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.swagger.client.model.Pipeline;
+import io.swagger.client.model.PipelineExecution;
+import io.swagger.client.model.PipelineExecutionStepState;
+import io.swagger.client.model.PipelineList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+import retrofit2.Retrofit;
+
+/** Both engines must read and write the API payloads the same way. */
+public class JsonEngineTest {
+
+  private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+  private static final MediaType JSON = MediaType.get("application/json");
+
+  @Test
+  public void readsPipelineList() throws IOException {
+    for (JsonEngine engine : JsonEngine.values()) {
+      PipelineList list = read(engine, PipelineList.class, resource("pipeline-list.json"));
+      List<Pipeline> pipelines = list.getEmbedded().getPipelines();
+      assertEquals(engine.name(), Integer.valueOf(2), list.getTotalNumberOfItems());
+      assertEquals(engine.name(), 2, pipelines.size());
+      assertEquals(engine.name(), "/api/program/14/pipelines", list.getLinks().getSelf().getHref());
+
+      Pipeline main = pipelines.get(0);
+      assertEquals(engine.name(), "AcmeCorp Main Pipeline", main.getName());
+      assertEquals(engine.name(), Pipeline.StatusEnum.IDLE, main.getStatus());
+      assertEquals(engine.name(), Pipeline.TriggerEnum.MANUAL, main.getTrigger());
+      assertEquals(
+          engine.name(),
+          OffsetDateTime.of(2020, 4, 2, 9, 21, 46, 132_000_000, ZoneOffset.UTC),
+          main.getCreatedAt());
+      assertEquals(engine.name(), "master", main.getPhases().get(0).getBranch());
+      assertEquals(
+          engine.name(), "/api/program/14/pipeline/29", main.getLinks().getSelf().getHref());
+
+      // a status this client doesn't know yet
+      assertNull(engine.name(), pipelines.get(1).getStatus());
+    }
+  }
+
+  @Test
+  public void readsPipelineExecution() throws IOException {
+    for (JsonEngine engine : JsonEngine.values()) {
+      PipelineExecution execution =
+          read(engine, PipelineExecution.class, resource("pipeline-execution.json"));
+      List<PipelineExecutionStepState> steps = execution.getEmbedded().getStepStates();
+      assertEquals(engine.name(), PipelineExecution.StatusEnum.RUNNING, execution.getStatus());
+      assertEquals(
+          engine.name(),
+          OffsetDateTime.of(2020, 5, 11, 13, 52, 40, 500_000_000, ZoneOffset.UTC),
+          execution.getUpdatedAt());
+      assertEquals(
+          engine.name(),
+          "/api/program/14/pipeline/29/execution/1012",
+          execution.getLinks().getSelf().getHref());
+      assertEquals(engine.name(), 2, steps.size());
+      assertEquals(
+          engine.name(), PipelineExecutionStepState.StatusEnum.FINISHED, steps.get(0).getStatus());
+      assertEquals(engine.name(), "build-image:1.0", steps.get(0).getDetails().get("buildImage"));
+      assertNull(engine.name(), steps.get(1).getStatus());
+    }
+  }
+
+  @Test
+  public void enginesReadTheSameModels() throws IOException {
+    assertEquals(
+        read(JsonEngine.GSON, PipelineList.class, resource("pipeline-list.json")),
+        read(JsonEngine.JACKSON, PipelineList.class, resource("pipeline-list.json")));
+    assertEquals(
+        read(JsonEngine.GSON, PipelineExecution.class, resource("pipeline-execution.json")),
+        read(JsonEngine.JACKSON, PipelineExecution.class, resource("pipeline-execution.json")));
+  }
+
+  @Test
+  public void modelsRoundTripAcrossEngines() throws IOException {
+    for (JsonEngine writer : JsonEngine.values()) {
+      for (JsonEngine reader : JsonEngine.values()) {
+        String message = writer.name() + " -> " + reader.name();
+        PipelineList list = read(writer, PipelineList.class, resource("pipeline-list.json"));
+        assertEquals(message, list, read(reader, PipelineList.class, write(writer, list)));
+        PipelineExecution execution =
+            read(writer, PipelineExecution.class, resource("pipeline-execution.json"));
+        assertEquals(
+            message, execution, read(reader, PipelineExecution.class, write(writer, execution)));
+      }
+    }
+  }
+
+  static String resource(String name) throws IOException {
+    try (InputStream in = JsonEngineTest.class.getResourceAsStream(name)) {
+      return IOUtils.toString(in, StandardCharsets.UTF_8);
+    }
+  }
+
+  static <T> T read(JsonEngine engine, Class<T> type, String json) throws IOException {
+    return retrofit(engine)
+        .<T>responseBodyConverter(type, NO_ANNOTATIONS)
+        .convert(ResponseBody.create(JSON, json));
+  }
+
+  static <T> String write(JsonEngine engine, T value) throws IOException {
+    RequestBody body =
+        retrofit(engine)
+            .<T>requestBodyConverter(value.getClass(), NO_ANNOTATIONS, NO_ANNOTATIONS)
+            .convert(value);
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    return buffer.readUtf8();
+  }
+
+  private static Retrofit retrofit(JsonEngine engine) {
+    return new Retrofit.Builder()
+        .baseUrl("http://localhost/")
+        .addConverterFactory(engine.getConverterFactory())
+        .build();
+  }
+}